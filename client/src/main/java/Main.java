@@ -1,8 +1,25 @@
 import chess.*;
+import com.google.gson.Gson;
+
+import java.util.List;
 
 public class Main {
+    private static final int WARMUP_GAMES = 20;
+
     public static void main(String[] args) {
+        //--warmup plays some games before starting so the rules engine is already compiled.
+        //--cds-training only warms up and exits; the build runs it to record a CDS archive
+        List<String> flags = List.of(args);
+        boolean training = flags.contains("--cds-training");
+        if (training || flags.contains("--warmup")) {
+            Warmup.run(WARMUP_GAMES);
+            new Gson().fromJson(new Gson().toJson(new ChessGame()), ChessGame.class);
+        }
+        if (training) {
+            return;
+        }
+
         var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
         System.out.println("♕ 240 Chess Client: " + piece);
     }
-}
\ No newline at end of file
+}
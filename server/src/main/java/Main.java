@@ -1,8 +1,65 @@
 import chess.*;
+import com.google.gson.Gson;
+import server.Server;
+import spark.Spark;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
 
 public class Main {
+    private static final int WARMUP_GAMES = 20;
+
     public static void main(String[] args) {
-        var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        System.out.println("♕ 240 Chess Server: " + piece);
+        //--warmup plays some games before starting so the rules engine is already compiled.
+        //--cds-training only warms up and exits; the build runs it to record a CDS archive.
+        //--virtual-threads handles requests on virtual threads instead of a fixed thread pool
+        List<String> flags = List.of(args);
+        boolean virtualThreads = flags.contains("--virtual-threads");
+        if (virtualThreads) {
+            //Before anything can start a virtual thread
+            Server.configureVirtualThreads();
+        }
+        boolean training = flags.contains("--cds-training");
+        if (training || flags.contains("--warmup")) {
+            Warmup.run(WARMUP_GAMES);
+            new Gson().fromJson(new Gson().toJson(new ChessGame()), ChessGame.class);
+        }
+        if (training) {
+            trainWebStack();
+            return;
+        }
+
+        var server = new Server(virtualThreads);
+        int port = server.run(8080);
+        //Stopping writes out any game updates still buffered in memory
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("♕ 240 Chess Server started on port " + port);
+    }
+
+    //Starts Spark and Jetty on a free port, serves one request and stops, so their classes
+    //land in the archive too. The MySQL driver is only loaded, since no database is needed.
+    private static void trainWebStack() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("MySQL driver is missing", e);
+        }
+        Spark.port(0);
+        Spark.get("/warmup", (req, res) -> new Gson().toJson(new ChessGame()));
+        Spark.awaitInitialization();
+        try {
+            var connection = (HttpURLConnection) URI.create("http://localhost:" + Spark.port() + "/warmup")
+                    .toURL().openConnection();
+            try (var body = connection.getInputStream()) {
+                body.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Training request failed", e);
+        } finally {
+            Spark.stop();
+            Spark.awaitStop();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package dataaccess;
+
+import model.AuthData;
+
+/**
+ * Storage for login sessions
+ */
+public interface AuthDAO {
+    /**
+     * Starts a session for a user
+     *
+     * @return the session, with a new token
+     */
+    AuthData createAuth(String username) throws DataAccessException;
+
+    /**
+     * @return the session the token belongs to, or null if the token is unknown or logged out
+     */
+    AuthData getAuth(String authToken) throws DataAccessException;
+
+    /**
+     * Ends a session so its token is no longer accepted
+     */
+    void deleteAuth(String authToken) throws DataAccessException;
+
+    /**
+     * Deletes stored sessions. Whether tokens already issued stop working depends on the
+     * implementation: signed tokens stay valid until they expire.
+     */
+    void clear() throws DataAccessException;
+}
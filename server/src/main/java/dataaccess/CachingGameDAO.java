@@ -0,0 +1,230 @@
+package dataaccess;
+
+import model.GameData;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps recently used games in memory in front of another GameDAO. Reads load from the
+ * underlying DAO only on a miss, and updates are written through to it and kept.
+ * <p>
+ * Eviction is a segmented LRU: new games enter a small probation segment and move to the
+ * protected segment when used again, so a burst of one-off lookups cannot push out the
+ * games being actively played. Games not used for the idle timeout are dropped as well.
+ * <p>
+ * Games are copied going in and out, so callers can change what they get back freely.
+ */
+public class CachingGameDAO implements GameDAO {
+    /**
+     * @param hits        lookups answered from memory
+     * @param misses      lookups that went to the underlying DAO
+     * @param evictions   games dropped to stay within the size limit
+     * @param expirations games dropped for being idle
+     * @param size        games currently cached
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private static final class Entry {
+        final GameData game;
+        long lastAccess;
+
+        Entry(GameData game, long now) {
+            this.game = game;
+            this.lastAccess = now;
+        }
+    }
+
+    private final GameDAO store;
+    private final int probationSize;
+    private final int protectedSize;
+    private final long idleNanos;
+    //Both in least recently used first order; guarded by lock
+    private final LinkedHashMap<Integer, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Entry> protectedGames = new LinkedHashMap<>(16, 0.75f, true);
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param store       where games are loaded from and written to
+     * @param maxGames    most games to keep in memory
+     * @param idleTimeout milliseconds a game may go unused before it is dropped
+     */
+    public CachingGameDAO(GameDAO store, int maxGames, long idleTimeout) {
+        if (maxGames < 2) {
+            throw new IllegalArgumentException("Cache needs room for at least two games");
+        }
+        this.store = store;
+        this.probationSize = Math.max(1, maxGames / 5);
+        this.protectedSize = maxGames - probationSize;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        return store.createGame(gameName);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData cached = lookup(gameID);
+        if (cached != null) {
+            hits.increment();
+            return cached.copy();
+        }
+        misses.increment();
+        GameData loaded = store.getGame(gameID);
+        if (loaded == null) {
+            return null;
+        }
+        //An update may have been cached while this was loading, and that version is newer
+        return admitLoaded(loaded.copy()).copy();
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        return store.listGames();
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        store.updateGame(game);
+        admit(game.copy());
+    }
+
+    @Override
+    public void updateGames(Collection<GameData> games) throws DataAccessException {
+        store.updateGames(games);
+        for (GameData game : games) {
+            admit(game.copy());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        synchronized (lock) {
+            probation.clear();
+            protectedGames.clear();
+        }
+        store.clear();
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (lock) {
+            size = probation.size() + protectedGames.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+
+    //Finds a live entry, promoting it to the protected segment on its second use
+    private GameData lookup(int gameID) {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Entry entry = protectedGames.get(gameID);
+            if (entry == null) {
+                entry = probation.remove(gameID);
+                if (entry == null) {
+                    return null;
+                }
+                if (now - entry.lastAccess >= idleNanos) {
+                    expirations.increment();
+                    return null;
+                }
+                protectedGames.put(gameID, entry);
+                demoteOverflow();
+            } else if (now - entry.lastAccess >= idleNanos) {
+                protectedGames.remove(gameID);
+                expirations.increment();
+                return null;
+            }
+            entry.lastAccess = now;
+            return entry.game;
+        }
+    }
+
+    //Adds or replaces a written game, keeping it in whichever segment it was already in
+    private void admit(GameData game) {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Entry entry = new Entry(game, now);
+            if (protectedGames.containsKey(game.gameID())) {
+                protectedGames.put(game.gameID(), entry);
+            } else {
+                probation.put(game.gameID(), entry);
+            }
+            trim(now);
+        }
+    }
+
+    //Adds a game read from the store unless the game is already cached, and returns the cached version
+    private GameData admitLoaded(GameData game) {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Entry entry = protectedGames.get(game.gameID());
+            if (entry == null) {
+                entry = probation.get(game.gameID());
+            }
+            if (entry != null) {
+                entry.lastAccess = now;
+                return entry.game;
+            }
+            probation.put(game.gameID(), new Entry(game, now));
+            trim(now);
+            return game;
+        }
+    }
+
+    private void trim(long now) {
+        expireIdle(protectedGames, now);
+        expireIdle(probation, now);
+        while (probation.size() > probationSize) {
+            removeEldest(probation);
+            evictions.increment();
+        }
+    }
+
+    //Moves the least recently used protected games back to probation when protected is full
+    private void demoteOverflow() {
+        while (protectedGames.size() > protectedSize) {
+            Map.Entry<Integer, Entry> eldest = protectedGames.entrySet().iterator().next();
+            protectedGames.remove(eldest.getKey());
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+        while (probation.size() > probationSize) {
+            removeEldest(probation);
+            evictions.increment();
+        }
+    }
+
+    //Idle games collect at the least recently used end, so stop at the first live one
+    private void expireIdle(LinkedHashMap<Integer, Entry> segment, long now) {
+        Iterator<Entry> iterator = segment.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastAccess < idleNanos) {
+                return;
+            }
+            iterator.remove();
+            expirations.increment();
+        }
+    }
+
+    private static void removeEldest(LinkedHashMap<Integer, Entry> segment) {
+        Iterator<Integer> iterator = segment.keySet().iterator();
+        iterator.next();
+        iterator.remove();
+    }
+}
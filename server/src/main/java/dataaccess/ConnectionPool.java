@@ -0,0 +1,355 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of database connections. Borrowed connections are handed out wrapped so
+ * that {@code close()} returns them to the pool instead of closing the socket; use them in
+ * a try-with-resources block exactly like a plain JDBC connection.
+ * <p>
+ * Connections are checked with {@link Connection#isValid(int)} before being handed out,
+ * closed once they have sat idle or been open for too long, and replaced as needed. A
+ * returned connection has its transaction rolled back and any isolation level, read-only
+ * flag or catalog the borrower changed put back, so the next borrower starts clean.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Pool limits, all times in milliseconds
+     *
+     * @param maxSize           most connections open at once
+     * @param borrowTimeout     longest a caller waits for a free connection
+     * @param idleTimeout       idle connections older than this are closed
+     * @param maxLifetime       connections older than this are closed when next returned or found idle
+     * @param validationTimeout seconds allowed for the validity check on borrow
+     * @param statementCacheSize prepared statements kept open per connection, 0 to turn caching off
+     */
+    public record Settings(int maxSize, long borrowTimeout, long idleTimeout, long maxLifetime,
+                           int validationTimeout, int statementCacheSize) {
+        public Settings {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Pool needs room for at least one connection");
+            }
+        }
+    }
+
+    private static final class Pooled {
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt;
+        //Settings the connection was opened with
+        final int isolation;
+        final boolean readOnly;
+        final String catalog;
+        long lastUsed;
+        //Set when the borrower changes a setting above
+        boolean settingsChanged;
+
+        Pooled(Connection physical, StatementCache statements, long now) throws SQLException {
+            this.physical = physical;
+            this.statements = statements;
+            this.createdAt = now;
+            this.lastUsed = now;
+            this.isolation = physical.getTransactionIsolation();
+            this.readOnly = physical.isReadOnly();
+            this.catalog = physical.getCatalog();
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    //Most recently returned connections are taken first so the rest can age out
+    private final ArrayDeque<Pooled> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder saturatedBorrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, settings.idleTimeout() / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if every connection is in use
+     *
+     * @return a connection whose close() returns it to the pool
+     * @throws DataAccessException if no connection is free in time or one cannot be opened
+     */
+    public Connection getConnection() throws DataAccessException {
+        if (closed) {
+            throw new DataAccessException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean saturated = !permits.tryAcquire();
+        if (saturated) {
+            saturatedBorrows.increment();
+            try {
+                if (!permits.tryAcquire(settings.borrowTimeout(), TimeUnit.MILLISECONDS)) {
+                    timeouts.increment();
+                    throw new DataAccessException("Timed out waiting for a database connection");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessException("Interrupted waiting for a database connection");
+            }
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        borrows.increment();
+
+        try {
+            Pooled pooled = takeUsable();
+            active.incrementAndGet();
+            return wrap(pooled);
+        } catch (SQLException e) {
+            permits.release();
+            throw new DataAccessException(e.getMessage());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    //Takes the newest idle connection that is still usable, or opens a new one
+    private Pooled takeUsable() throws SQLException {
+        while (true) {
+            Pooled pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                Connection physical = factory.open();
+                created.increment();
+                StatementCache statements = settings.statementCacheSize() > 0
+                        ? new StatementCache(physical, settings.statementCacheSize(), statementHits, statementMisses)
+                        : null;
+                try {
+                    return new Pooled(physical, statements, System.currentTimeMillis());
+                } catch (SQLException e) {
+                    physical.close();
+                    discarded.increment();
+                    throw e;
+                }
+            }
+            if (!isExpired(pooled, System.currentTimeMillis()) && isValid(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+    }
+
+    private boolean isValid(Pooled pooled) {
+        try {
+            return pooled.physical.isValid(settings.validationTimeout());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(Pooled pooled, long now) {
+        return now - pooled.createdAt >= settings.maxLifetime() || now - pooled.lastUsed >= settings.idleTimeout();
+    }
+
+    //Called when a borrower closes its connection
+    private void giveBack(Pooled pooled) {
+        active.decrementAndGet();
+        try {
+            long now = System.currentTimeMillis();
+            boolean reusable = !closed && !pooled.physical.isClosed() && now - pooled.createdAt < settings.maxLifetime();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable && pooled.settingsChanged) {
+                pooled.physical.setTransactionIsolation(pooled.isolation);
+                pooled.physical.setReadOnly(pooled.readOnly);
+                if (pooled.catalog != null) {
+                    pooled.physical.setCatalog(pooled.catalog);
+                }
+                pooled.settingsChanged = false;
+            }
+            if (reusable) {
+                pooled.lastUsed = now;
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Pooled pooled) {
+        discarded.increment();
+        if (pooled.statements != null) {
+            pooled.statements.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            //The connection is being thrown away either way
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Pooled> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<Pooled> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                Pooled pooled = iterator.next();
+                if (isExpired(pooled, now)) {
+                    iterator.remove();
+                    expired.add(pooled);
+                }
+            }
+        }
+        //Closed outside the lock so borrowers are not held up by the network round trips
+        expired.forEach(this::discard);
+    }
+
+    private Connection wrap(Pooled pooled) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (!returned) {
+                            returned = true;
+                            giveBack(pooled);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return returned || pooled.physical.isClosed();
+                    }
+                    case "prepareStatement" -> {
+                        if (returned) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                        if (pooled.statements != null && args.length == 1) {
+                            return pooled.statements.prepare((String) args[0]);
+                        }
+                    }
+                    //Handing out the physical connection would let callers close it behind the pool's back
+                    case "unwrap" -> {
+                        Class<?> type = (Class<?>) args[0];
+                        if (type.isInstance(proxy)) {
+                            return proxy;
+                        }
+                        throw new SQLException("Pooled connections cannot be unwrapped to " + type.getName());
+                    }
+                    case "isWrapperFor" -> {
+                        return ((Class<?>) args[0]).isInstance(proxy);
+                    }
+                    case "setTransactionIsolation", "setReadOnly", "setCatalog" -> {
+                        if (returned) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                        pooled.settingsChanged = true;
+                    }
+                    //Each borrow is its own object, so pooled connections can be used as map keys
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                    }
+                    default -> {
+                        if (returned) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                    }
+                }
+                try {
+                    return method.invoke(pooled.physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * @return a snapshot of the pool's counters
+     */
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(active.get(), idleCount, settings.maxSize(), permits.getQueueLength(),
+                borrows.sum(), saturatedBorrows.sum(), timeouts.sum(), created.sum(), discarded.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), statementHits.sum(), statementMisses.sum());
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones. Connections still
+     * borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        List<Pooled> remaining;
+        synchronized (idle) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        remaining.forEach(this::discard);
+    }
+}
@@ -0,0 +1,162 @@
+package dataaccess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseManager {
+    private static final String DATABASE_NAME;
+    private static final String USER;
+    private static final String PASSWORD;
+    private static final String CONNECTION_URL;
+    private static final ConnectionPool POOL;
+    //0 stores whole games with MySqlGameDAO, otherwise moves are logged with MoveLogGameDAO
+    private static final int GAME_SNAPSHOT_INTERVAL;
+    //Empty keeps random tokens in the auth table, otherwise tokens are signed with SignedAuthDAO.
+    //Secrets never come from db.properties, only from the environment or a file kept out of git.
+    private static final Map<String, byte[]> AUTH_KEYS = new LinkedHashMap<>();
+    private static final String AUTH_SIGNING_KEY;
+    private static final long AUTH_MAX_AGE_MILLIS;
+
+    /*
+     * Load the database information for the db.properties file.
+     */
+    static {
+        try {
+            try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
+                if (propStream == null) {
+                    throw new Exception("Unable to load db.properties");
+                }
+                Properties props = new Properties();
+                props.load(propStream);
+                DATABASE_NAME = props.getProperty("db.name");
+                USER = props.getProperty("db.user");
+                PASSWORD = props.getProperty("db.password");
+
+                var host = props.getProperty("db.host");
+                var port = Integer.parseInt(props.getProperty("db.port"));
+                //Server-side prepared statements let MySQL skip the parse and plan for repeated SQL. The
+                //pool's StatementCache keeps them open, so the driver's own cache is left off.
+                CONNECTION_URL = String.format("jdbc:mysql://%s:%d?useServerPrepStmts=true", host, port);
+
+                var settings = new ConnectionPool.Settings(
+                        Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                        Long.parseLong(props.getProperty("db.pool.borrowTimeoutMillis", "5000")),
+                        Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "300000")),
+                        Long.parseLong(props.getProperty("db.pool.maxLifetimeMillis", "1800000")),
+                        Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2")),
+                        Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "64")));
+                POOL = new ConnectionPool(DatabaseManager::openConnection, settings);
+                GAME_SNAPSHOT_INTERVAL = Integer.parseInt(props.getProperty("db.game.snapshotInterval", "0"));
+
+                //Keys are a comma separated list of id:base64Key pairs
+                for (var entry : readAuthKeys(props).split(",")) {
+                    if (!entry.isBlank()) {
+                        var pair = entry.trim().split(":", 2);
+                        AUTH_KEYS.put(pair[0], Base64.getDecoder().decode(pair[1]));
+                    }
+                }
+                var signingKey = System.getenv("CHESS_AUTH_SIGNING_KEY");
+                if (signingKey == null || signingKey.isBlank()) {
+                    signingKey = props.getProperty("auth.signingKey", "");
+                }
+                //Without a choice, sign with the first key listed
+                AUTH_SIGNING_KEY = signingKey.isBlank() && !AUTH_KEYS.isEmpty()
+                        ? AUTH_KEYS.keySet().iterator().next() : signingKey;
+                AUTH_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(Long.parseLong(props.getProperty("auth.maxAgeHours", "24")));
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
+        }
+    }
+
+    //The CHESS_AUTH_KEYS environment variable, otherwise the file named by auth.keysFile
+    private static String readAuthKeys(Properties props) throws IOException {
+        var keys = System.getenv("CHESS_AUTH_KEYS");
+        if (keys != null && !keys.isBlank()) {
+            return keys;
+        }
+        var keysFile = props.getProperty("auth.keysFile", "");
+        if (keysFile.isBlank()) {
+            return "";
+        }
+        return Files.readString(Path.of(keysFile)).trim();
+    }
+
+    /**
+     * Creates the database if it does not already exist.
+     */
+    static void createDatabase() throws DataAccessException {
+        var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
+        try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+             var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    /**
+     * Borrows a connection to the database from the pool, with the catalog set based upon
+     * the properties specified in db.properties. Connections should be short-lived, and you
+     * must close the connection when you are done with it so it goes back to the pool.
+     * The easiest way to do that is with a try-with-resource block.
+     * <br/>
+     * <code>
+     * try (var conn = DatabaseManager.getConnection()) {
+     * // execute SQL statements.
+     * }
+     * </code>
+     */
+    static Connection getConnection() throws DataAccessException {
+        return POOL.getConnection();
+    }
+
+    /**
+     * Creates the game DAO chosen in db.properties: a move log with periodic snapshots when
+     * db.game.snapshotInterval is set, otherwise whole-game rows
+     */
+    public static GameDAO createGameDAO() throws DataAccessException {
+        if (GAME_SNAPSHOT_INTERVAL > 0) {
+            return new MoveLogGameDAO(GAME_SNAPSHOT_INTERVAL);
+        }
+        return new MySqlGameDAO();
+    }
+
+    /**
+     * Creates the auth DAO: signed tokens checked in memory when keys are given through
+     * CHESS_AUTH_KEYS or auth.keysFile, otherwise random tokens looked up in the auth table
+     */
+    public static AuthDAO createAuthDAO() throws DataAccessException {
+        if (!AUTH_KEYS.isEmpty()) {
+            return SignedAuthDAO.open(AUTH_KEYS, AUTH_SIGNING_KEY, AUTH_MAX_AGE_MILLIS);
+        }
+        return new MySqlAuthDAO();
+    }
+
+    /**
+     * @return wait time and saturation counters for the connection pool
+     */
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /**
+     * Closes the pooled connections. Call once when the server stops.
+     */
+    public static void closePool() {
+        POOL.close();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        conn.setCatalog(DATABASE_NAME);
+        return conn;
+    }
+}
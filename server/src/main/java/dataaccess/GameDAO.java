@@ -0,0 +1,41 @@
+package dataaccess;
+
+import model.GameData;
+
+import java.util.Collection;
+
+/**
+ * Storage for games
+ */
+public interface GameDAO {
+    /**
+     * Creates a new game in the starting position
+     *
+     * @return the new game's id
+     */
+    int createGame(String gameName) throws DataAccessException;
+
+    /**
+     * @return the game, or null if there is no game with that id
+     */
+    GameData getGame(int gameID) throws DataAccessException;
+
+    Collection<GameData> listGames() throws DataAccessException;
+
+    /**
+     * Replaces a stored game with a new version of it
+     */
+    void updateGame(GameData game) throws DataAccessException;
+
+    /**
+     * Replaces several stored games at once. Implementations that can batch the writes
+     * should override this.
+     */
+    default void updateGames(Collection<GameData> games) throws DataAccessException {
+        for (GameData game : games) {
+            updateGame(game);
+        }
+    }
+
+    void clear() throws DataAccessException;
+}
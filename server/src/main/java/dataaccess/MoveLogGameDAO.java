@@ -0,0 +1,359 @@
+package dataaccess;
+
+import chess.BoardSnapshot;
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.MoveList;
+import chess.PackedMove;
+import com.google.gson.Gson;
+import model.GameData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Games stored as an append-only log of packed moves plus an occasional position snapshot.
+ * Each move adds one small row (game id, ply, 2 byte move) instead of rewriting the whole
+ * game, and every {@code snapshotInterval} moves the position is saved again so loading
+ * never replays more than that many moves.
+ * <p>
+ * A snapshot holds only the position (board, turn, castling rights and en passant square),
+ * so it stays the same size however long the game runs. The move log is kept in full and
+ * is where a loaded game's move history comes from: loading reads the latest snapshot, takes
+ * the history before it from the log and replays the moves made after it.
+ */
+public class MoveLogGameDAO implements GameDAO {
+    private static final Gson GSON = new Gson();
+
+    private static final String[] CREATE_TABLES = {
+            """
+            CREATE TABLE IF NOT EXISTS game_snapshot (
+              gameID INT NOT NULL AUTO_INCREMENT,
+              whiteUsername VARCHAR(256),
+              blackUsername VARCHAR(256),
+              gameName VARCHAR(256) NOT NULL,
+              snapshotPly INT NOT NULL,
+              game LONGTEXT NOT NULL,
+              PRIMARY KEY (gameID)
+            )""",
+            """
+            CREATE TABLE IF NOT EXISTS game_move (
+              gameID INT NOT NULL,
+              ply INT NOT NULL,
+              move SMALLINT NOT NULL,
+              PRIMARY KEY (gameID, ply)
+            )"""
+    };
+    private static final String SELECT_SNAPSHOTS =
+            "SELECT gameID, whiteUsername, blackUsername, gameName, snapshotPly, game FROM game_snapshot";
+
+    //A game_snapshot row
+    record Snapshot(int gameID, String whiteUsername, String blackUsername, String gameName,
+                            BoardSnapshot position) {
+    }
+
+    //What is already in the database for a game, so an update only writes what is new
+    private record Persisted(short[] moves, int snapshotPly, String whiteUsername, String blackUsername) {
+    }
+
+    /**
+     * What to write for one game
+     *
+     * @param keep     stored moves that are still part of the game; later rows are replaced
+     * @param snapshot whether to save the position again
+     */
+    record Write(int keep, boolean snapshot) {
+    }
+
+    private final int snapshotInterval;
+    private final Map<Integer, Persisted> persisted = new ConcurrentHashMap<>();
+
+    /**
+     * @param snapshotInterval moves between full snapshots of a game
+     */
+    public MoveLogGameDAO(int snapshotInterval) throws DataAccessException {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least one move");
+        }
+        this.snapshotInterval = snapshotInterval;
+        DatabaseManager.createDatabase();
+        try (var conn = DatabaseManager.getConnection()) {
+            for (String sql : CREATE_TABLES) {
+                try (var statement = conn.prepareStatement(sql)) {
+                    statement.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        var sql = "INSERT INTO game_snapshot (gameName, snapshotPly, game) VALUES (?, 0, ?)";
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, gameName);
+            statement.setString(2, GSON.toJson(new ChessGame().snapshot()));
+            statement.executeUpdate();
+            try (var keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new DataAccessException("No id returned for new game");
+                }
+                int gameID = keys.getInt(1);
+                persisted.put(gameID, new Persisted(new short[0], 0, null, null));
+                return gameID;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            Snapshot snapshot;
+            try (var statement = conn.prepareStatement(SELECT_SNAPSHOTS + " WHERE gameID = ?")) {
+                statement.setInt(1, gameID);
+                try (var results = statement.executeQuery()) {
+                    if (!results.next()) {
+                        return null;
+                    }
+                    snapshot = readSnapshot(results);
+                }
+            }
+            var moves = new MoveList();
+            try (var statement = conn.prepareStatement("SELECT move FROM game_move WHERE gameID = ? ORDER BY ply")) {
+                statement.setInt(1, gameID);
+                try (var results = statement.executeQuery()) {
+                    while (results.next()) {
+                        moves.add(results.getShort("move"));
+                    }
+                }
+            }
+            GameData game = rebuild(snapshot, moves);
+            remember(game, snapshot.position().getPly());
+            return game;
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            List<Snapshot> snapshots = new ArrayList<>();
+            try (var statement = conn.prepareStatement(SELECT_SNAPSHOTS);
+                 var results = statement.executeQuery()) {
+                while (results.next()) {
+                    snapshots.add(readSnapshot(results));
+                }
+            }
+            //Every game's moves in one query, grouped by game
+            Map<Integer, MoveList> moves = new HashMap<>();
+            try (var statement = conn.prepareStatement("SELECT gameID, move FROM game_move ORDER BY gameID, ply");
+                 var results = statement.executeQuery()) {
+                while (results.next()) {
+                    moves.computeIfAbsent(results.getInt("gameID"), id -> new MoveList()).add(results.getShort("move"));
+                }
+            }
+            List<GameData> loaded = new ArrayList<>();
+            for (Snapshot snapshot : snapshots) {
+                GameData game = rebuild(snapshot, moves.getOrDefault(snapshot.gameID(), new MoveList()));
+                remember(game, snapshot.position().getPly());
+                loaded.add(game);
+            }
+            return loaded;
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        updateGames(List.of(game));
+    }
+
+    /**
+     * Appends the moves each game has made since it was last written, taking a new snapshot
+     * when a game is due one. All games are written in one transaction.
+     */
+    @Override
+    public void updateGames(Collection<GameData> games) throws DataAccessException {
+        Map<Integer, Persisted> written = new HashMap<>();
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (var insertMove = conn.prepareStatement("INSERT INTO game_move (gameID, ply, move) VALUES (?, ?, ?)")) {
+                for (GameData game : games) {
+                    written.put(game.gameID(), write(conn, insertMove, game));
+                }
+                insertMove.executeBatch();
+                conn.commit();
+            } catch (SQLException | DataAccessException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+        persisted.putAll(written);
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            for (String table : new String[]{"game_move", "game_snapshot"}) {
+                try (var statement = conn.prepareStatement("TRUNCATE " + table)) {
+                    statement.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+        persisted.clear();
+    }
+
+    /**
+     * Compares the moves already stored with the game's history. Only the moves after the
+     * longest common prefix are written, so a game that was undone, reset or replaced and
+     * then played on never has its new moves appended to the old game's log.
+     * <p>
+     * The position is saved again when it is due, when a stored move before the snapshot has
+     * changed, or when nothing is shared with the stored moves, since the game may then start
+     * from a different position.
+     */
+    static Write plan(short[] stored, int snapshotPly, short[] history, int snapshotInterval) {
+        int keep = Arrays.mismatch(stored, history);
+        if (keep < 0) {
+            keep = stored.length;
+        }
+        boolean snapshot = keep == 0 || keep < snapshotPly || history.length - snapshotPly >= snapshotInterval;
+        return new Write(keep, snapshot);
+    }
+
+    //Queues the new move rows for one game and rewrites its snapshot row if needed
+    private Persisted write(Connection conn, PreparedStatement insertMove, GameData game)
+            throws SQLException, DataAccessException {
+        Persisted before = persisted.get(game.gameID());
+        if (before == null) {
+            before = loadPersisted(conn, game.gameID());
+        }
+        short[] history = game.game().getMoveHistory().toArray();
+        Write write = plan(before.moves(), before.snapshotPly(), history, snapshotInterval);
+
+        if (write.keep() < before.moves().length) {
+            try (var statement = conn.prepareStatement("DELETE FROM game_move WHERE gameID = ? AND ply >= ?")) {
+                statement.setInt(1, game.gameID());
+                statement.setInt(2, write.keep());
+                statement.executeUpdate();
+            }
+        }
+        for (int ply = write.keep(); ply < history.length; ply++) {
+            insertMove.setInt(1, game.gameID());
+            insertMove.setInt(2, ply);
+            insertMove.setShort(3, history[ply]);
+            insertMove.addBatch();
+        }
+        if (write.snapshot()) {
+            writeSnapshot(conn, game, history.length);
+            return new Persisted(history, history.length, game.whiteUsername(), game.blackUsername());
+        }
+        if (!Objects.equals(before.whiteUsername(), game.whiteUsername())
+                || !Objects.equals(before.blackUsername(), game.blackUsername())) {
+            var sql = "UPDATE game_snapshot SET whiteUsername = ?, blackUsername = ? WHERE gameID = ?";
+            try (var statement = conn.prepareStatement(sql)) {
+                statement.setString(1, game.whiteUsername());
+                statement.setString(2, game.blackUsername());
+                statement.setInt(3, game.gameID());
+                statement.executeUpdate();
+            }
+        }
+        return new Persisted(history, before.snapshotPly(), game.whiteUsername(), game.blackUsername());
+    }
+
+    private void writeSnapshot(Connection conn, GameData game, int ply) throws SQLException {
+        var sql = "UPDATE game_snapshot SET whiteUsername = ?, blackUsername = ?, gameName = ?, snapshotPly = ?, "
+                + "game = ? WHERE gameID = ?";
+        try (var statement = conn.prepareStatement(sql)) {
+            statement.setString(1, game.whiteUsername());
+            statement.setString(2, game.blackUsername());
+            statement.setString(3, game.gameName());
+            statement.setInt(4, ply);
+            statement.setString(5, GSON.toJson(game.game().snapshot()));
+            statement.setInt(6, game.gameID());
+            statement.executeUpdate();
+        }
+    }
+
+    private Persisted loadPersisted(Connection conn, int gameID) throws SQLException, DataAccessException {
+        var sql = "SELECT whiteUsername, blackUsername, snapshotPly FROM game_snapshot WHERE gameID = ?";
+        int snapshotPly;
+        String whiteUsername;
+        String blackUsername;
+        try (var statement = conn.prepareStatement(sql)) {
+            statement.setInt(1, gameID);
+            try (var results = statement.executeQuery()) {
+                if (!results.next()) {
+                    throw new DataAccessException("No game with id " + gameID);
+                }
+                snapshotPly = results.getInt("snapshotPly");
+                whiteUsername = results.getString("whiteUsername");
+                blackUsername = results.getString("blackUsername");
+            }
+        }
+        var moves = new MoveList();
+        try (var statement = conn.prepareStatement("SELECT move FROM game_move WHERE gameID = ? ORDER BY ply")) {
+            statement.setInt(1, gameID);
+            try (var results = statement.executeQuery()) {
+                while (results.next()) {
+                    moves.add(results.getShort("move"));
+                }
+            }
+        }
+        return new Persisted(moves.toArray(), snapshotPly, whiteUsername, blackUsername);
+    }
+
+    private void remember(GameData game, int snapshotPly) {
+        persisted.put(game.gameID(), new Persisted(game.game().getMoveHistory().toArray(), snapshotPly,
+                game.whiteUsername(), game.blackUsername()));
+    }
+
+    private static Snapshot readSnapshot(ResultSet results) throws SQLException {
+        return new Snapshot(results.getInt("gameID"), results.getString("whiteUsername"),
+                results.getString("blackUsername"), results.getString("gameName"),
+                GSON.fromJson(results.getString("game"), BoardSnapshot.class));
+    }
+
+    //Takes the history before the snapshot from the log and replays the moves after it
+    static GameData rebuild(Snapshot snapshot, MoveList moves) throws DataAccessException {
+        int snapshotPly = snapshot.position().getPly();
+        if (moves.size() < snapshotPly) {
+            throw new DataAccessException("Move log for game " + snapshot.gameID() + " ends before its snapshot");
+        }
+        short[] packed = moves.toArray();
+        ChessGame game = snapshot.position().toGame(new MoveList(Arrays.copyOf(packed, snapshotPly)));
+        for (int ply = snapshotPly; ply < packed.length; ply++) {
+            try {
+                game.makeMove(PackedMove.decode(packed[ply]));
+            } catch (InvalidMoveException e) {
+                throw new DataAccessException("Stored move " + PackedMove.toString(packed[ply])
+                        + " is illegal in game " + snapshot.gameID());
+            }
+        }
+        return new GameData(snapshot.gameID(), snapshot.whiteUsername(), snapshot.blackUsername(),
+                snapshot.gameName(), game);
+    }
+}
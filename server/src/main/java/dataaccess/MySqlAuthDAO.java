@@ -0,0 +1,76 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Sessions stored in MySQL, one row per random token
+ */
+public class MySqlAuthDAO implements AuthDAO {
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS auth (
+              authToken VARCHAR(64) NOT NULL,
+              username VARCHAR(256) NOT NULL,
+              PRIMARY KEY (authToken)
+            )""";
+
+    public MySqlAuthDAO() throws DataAccessException {
+        DatabaseManager.createDatabase();
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(CREATE_TABLE)) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public AuthData createAuth(String username) throws DataAccessException {
+        var auth = new AuthData(UUID.randomUUID().toString(), username);
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement("INSERT INTO auth (authToken, username) VALUES (?, ?)")) {
+            statement.setString(1, auth.authToken());
+            statement.setString(2, auth.username());
+            statement.executeUpdate();
+            return auth;
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement("SELECT username FROM auth WHERE authToken = ?")) {
+            statement.setString(1, authToken);
+            try (var results = statement.executeQuery()) {
+                return results.next() ? new AuthData(authToken, results.getString("username")) : null;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement("DELETE FROM auth WHERE authToken = ?")) {
+            statement.setString(1, authToken);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement("TRUNCATE auth")) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dataaccess;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import model.GameData;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Games stored in MySQL, with each ChessGame serialized to JSON
+ */
+public class MySqlGameDAO implements GameDAO {
+    private static final Gson GSON = new Gson();
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS game (
+              gameID INT NOT NULL AUTO_INCREMENT,
+              whiteUsername VARCHAR(256),
+              blackUsername VARCHAR(256),
+              gameName VARCHAR(256) NOT NULL,
+              game LONGTEXT NOT NULL,
+              PRIMARY KEY (gameID)
+            )""";
+    private static final String SELECT_COLUMNS = "SELECT gameID, whiteUsername, blackUsername, gameName, game FROM game";
+
+    public MySqlGameDAO() throws DataAccessException {
+        DatabaseManager.createDatabase();
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(CREATE_TABLE)) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        var sql = "INSERT INTO game (gameName, game) VALUES (?, ?)";
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, gameName);
+            statement.setString(2, GSON.toJson(new ChessGame()));
+            statement.executeUpdate();
+            try (var keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new DataAccessException("No id returned for new game");
+                }
+                return keys.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(SELECT_COLUMNS + " WHERE gameID = ?")) {
+            statement.setInt(1, gameID);
+            try (var results = statement.executeQuery()) {
+                return results.next() ? readGame(results) : null;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(SELECT_COLUMNS)) {
+            try (var results = statement.executeQuery()) {
+                var games = new ArrayList<GameData>();
+                while (results.next()) {
+                    games.add(readGame(results));
+                }
+                return games;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        updateGames(List.of(game));
+    }
+
+    /**
+     * Writes every game in one JDBC batch inside a single transaction
+     */
+    @Override
+    public void updateGames(Collection<GameData> games) throws DataAccessException {
+        var sql = "UPDATE game SET whiteUsername = ?, blackUsername = ?, gameName = ?, game = ? WHERE gameID = ?";
+        try (var conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (var statement = conn.prepareStatement(sql)) {
+                for (GameData game : games) {
+                    statement.setString(1, game.whiteUsername());
+                    statement.setString(2, game.blackUsername());
+                    statement.setString(3, game.gameName());
+                    statement.setString(4, GSON.toJson(game.game()));
+                    statement.setInt(5, game.gameID());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement("TRUNCATE game")) {
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    private static GameData readGame(ResultSet results) throws SQLException {
+        return new GameData(results.getInt("gameID"), results.getString("whiteUsername"),
+                results.getString("blackUsername"), results.getString("gameName"),
+                GSON.fromJson(results.getString("game"), ChessGame.class));
+    }
+}
@@ -0,0 +1,30 @@
+package dataaccess;
+
+/**
+ * Counters from a {@link ConnectionPool}
+ *
+ * @param active           connections currently borrowed
+ * @param idle             open connections waiting to be borrowed
+ * @param maxSize          most connections the pool will open
+ * @param waiting          callers currently waiting for a connection
+ * @param borrows          connections handed out since the pool started
+ * @param saturatedBorrows borrows that found every connection in use and had to wait
+ * @param timeouts         borrows that gave up waiting
+ * @param created          physical connections opened
+ * @param discarded        physical connections closed for being invalid, idle or too old
+ * @param totalWaitMillis  time spent waiting across all borrows
+ * @param maxWaitMillis    longest single wait
+ * @param statementHits    prepareStatement calls answered from a connection's statement cache
+ * @param statementMisses  prepareStatement calls that had to prepare new SQL
+ */
+public record PoolStats(int active, int idle, int maxSize, int waiting, long borrows, long saturatedBorrows,
+                        long timeouts, long created, long discarded, long totalWaitMillis, long maxWaitMillis,
+                        long statementHits, long statementMisses) {
+
+    /**
+     * @return fraction of the pool currently borrowed, from 0 to 1
+     */
+    public double utilization() {
+        return (double) active / maxSize;
+    }
+}
@@ -0,0 +1,250 @@
+package dataaccess;
+
+import model.AuthData;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions carried entirely in the token. A token holds the key id, username, issue time and
+ * a random id, signed with HMAC-SHA256, so checking one is a signature check in memory
+ * rather than a database lookup.
+ * <p>
+ * Logging out adds the token's random id to a revocation set. The set is kept in memory and
+ * written to MySQL so it survives restarts, and entries are dropped once the token they
+ * revoke would have expired anyway, which keeps the set small. Use {@link #open} to create
+ * the table and load the revocations saved by earlier runs.
+ * <p>
+ * Tokens look like {@code keyId.username.issuedAt.tokenId.signature}, with the username and
+ * signature base64url encoded. Tokens signed with any of the known keys are accepted, so a
+ * new signing key can be rolled out while old tokens are still in use.
+ */
+public class SignedAuthDAO implements AuthDAO {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    });
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS revoked_token (
+              tokenId CHAR(32) NOT NULL,
+              expiresAt BIGINT NOT NULL,
+              PRIMARY KEY (tokenId)
+            )""";
+
+    /**
+     * Where revoked token ids are saved
+     */
+    interface RevocationStore {
+        /**
+         * Deletes revocations expired by {@code now} and returns the rest as token id to expiry time
+         */
+        Map<String, Long> load(long now) throws DataAccessException;
+
+        void add(String tokenId, long expiresAt) throws DataAccessException;
+
+        void clear() throws DataAccessException;
+    }
+
+    private final Map<String, SecretKeySpec> keys;
+    private final String signingKeyId;
+    private final long maxAgeMillis;
+    private final RevocationStore revocations;
+    //Token id to the time its token expires
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the revoked_token table if needed and loads the tokens revoked by earlier runs
+     *
+     * @param keys         secret keys by id; tokens signed with any of them are accepted
+     * @param signingKeyId id of the key new tokens are signed with
+     * @param maxAgeMillis how long a token is accepted after it is issued
+     */
+    public static SignedAuthDAO open(Map<String, byte[]> keys, String signingKeyId, long maxAgeMillis)
+            throws DataAccessException {
+        return open(keys, signingKeyId, maxAgeMillis, new MySqlRevocations());
+    }
+
+    static SignedAuthDAO open(Map<String, byte[]> keys, String signingKeyId, long maxAgeMillis,
+                              RevocationStore revocations) throws DataAccessException {
+        var dao = new SignedAuthDAO(keys, signingKeyId, maxAgeMillis, revocations);
+        dao.revoked.putAll(revocations.load(System.currentTimeMillis()));
+        return dao;
+    }
+
+    SignedAuthDAO(Map<String, byte[]> keys, String signingKeyId, long maxAgeMillis, RevocationStore revocations) {
+        if (!keys.containsKey(signingKeyId)) {
+            throw new IllegalArgumentException("No key with id " + signingKeyId);
+        }
+        this.keys = new ConcurrentHashMap<>();
+        keys.forEach((id, key) -> {
+            if (id.isEmpty() || id.contains(".")) {
+                throw new IllegalArgumentException("Key ids must be non-empty and contain no dots");
+            }
+            this.keys.put(id, new SecretKeySpec(key, ALGORITHM));
+        });
+        this.signingKeyId = signingKeyId;
+        this.maxAgeMillis = maxAgeMillis;
+        this.revocations = revocations;
+    }
+
+    @Override
+    public AuthData createAuth(String username) {
+        byte[] tokenId = new byte[16];
+        RANDOM.nextBytes(tokenId);
+        String payload = signingKeyId + "." + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + "." + System.currentTimeMillis() + "." + HexFormat.of().formatHex(tokenId);
+        return new AuthData(payload + "." + ENCODER.encodeToString(sign(signingKeyId, payload)), username);
+    }
+
+    /**
+     * Checks the token's signature, age and revocation without touching the database
+     */
+    @Override
+    public AuthData getAuth(String authToken) {
+        Token token = verify(authToken);
+        return token == null ? null : new AuthData(authToken, token.username());
+    }
+
+    /**
+     * Revokes the token until it would have expired. Tokens that are already invalid are ignored.
+     */
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        Token token = verify(authToken);
+        if (token == null) {
+            return;
+        }
+        long expiresAt = token.issuedAt() + maxAgeMillis;
+        revocations.add(token.tokenId(), expiresAt);
+        revoked.put(token.tokenId(), expiresAt);
+        pruneRevoked();
+    }
+
+    /**
+     * Forgets revoked tokens. Tokens already handed out stay valid until they expire, since
+     * nothing about them is stored.
+     */
+    @Override
+    public void clear() throws DataAccessException {
+        revocations.clear();
+        revoked.clear();
+    }
+
+    /**
+     * @return tokens currently revoked and not yet expired
+     */
+    public int getRevokedCount() {
+        return revoked.size();
+    }
+
+    private record Token(String username, long issuedAt, String tokenId) {
+    }
+
+    //Null unless the token is well formed, correctly signed, unexpired and not revoked
+    private Token verify(String authToken) {
+        if (authToken == null) {
+            return null;
+        }
+        String[] parts = authToken.split("\\.", -1);
+        if (parts.length != 5 || !keys.containsKey(parts[0])) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(parts[4]);
+            String payload = authToken.substring(0, authToken.lastIndexOf('.'));
+            if (!MessageDigest.isEqual(signature, sign(parts[0], payload))) {
+                return null;
+            }
+            long issuedAt = Long.parseLong(parts[2]);
+            if (System.currentTimeMillis() - issuedAt >= maxAgeMillis || revoked.containsKey(parts[3])) {
+                return null;
+            }
+            return new Token(new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8), issuedAt, parts[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String keyId, String payload) {
+        Mac mac = MACS.get();
+        try {
+            mac.init(keys.get(keyId));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unusable key " + keyId, e);
+        }
+        return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void pruneRevoked() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    //Revocations kept in the revoked_token table
+    private static final class MySqlRevocations implements RevocationStore {
+        @Override
+        public Map<String, Long> load(long now) throws DataAccessException {
+            DatabaseManager.createDatabase();
+            Map<String, Long> loaded = new HashMap<>();
+            try (var conn = DatabaseManager.getConnection()) {
+                try (var statement = conn.prepareStatement(CREATE_TABLE)) {
+                    statement.executeUpdate();
+                }
+                try (var statement = conn.prepareStatement("DELETE FROM revoked_token WHERE expiresAt <= ?")) {
+                    statement.setLong(1, now);
+                    statement.executeUpdate();
+                }
+                try (var statement = conn.prepareStatement("SELECT tokenId, expiresAt FROM revoked_token");
+                     var results = statement.executeQuery()) {
+                    while (results.next()) {
+                        loaded.put(results.getString("tokenId"), results.getLong("expiresAt"));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DataAccessException(e.getMessage());
+            }
+            return loaded;
+        }
+
+        @Override
+        public void add(String tokenId, long expiresAt) throws DataAccessException {
+            var sql = "INSERT IGNORE INTO revoked_token (tokenId, expiresAt) VALUES (?, ?)";
+            try (var conn = DatabaseManager.getConnection();
+                 var statement = conn.prepareStatement(sql)) {
+                statement.setString(1, tokenId);
+                statement.setLong(2, expiresAt);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new DataAccessException(e.getMessage());
+            }
+        }
+
+        @Override
+        public void clear() throws DataAccessException {
+            try (var conn = DatabaseManager.getConnection();
+                 var statement = conn.prepareStatement("TRUNCATE revoked_token")) {
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new DataAccessException(e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statements kept open on one pooled connection, keyed by SQL text. Callers get a
+ * wrapped statement whose {@code close()} clears its parameters and leaves it in the cache,
+ * so the next caller preparing the same SQL on this connection skips the parse entirely.
+ * <p>
+ * Only used by the thread that has borrowed the connection, so it is not synchronized.
+ */
+class StatementCache {
+    private static final class Entry {
+        final PreparedStatement physical;
+        boolean inUse;
+
+        Entry(PreparedStatement physical) {
+            this.physical = physical;
+        }
+    }
+
+    private final Connection connection;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    StatementCache(Connection connection, int maxStatements, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxStatements) {
+                    return false;
+                }
+                //A statement still in use is closed by its borrower instead
+                if (!eldest.getValue().inUse) {
+                    closeQuietly(eldest.getValue().physical);
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return a statement for the SQL, reused from the cache when one is free
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && entry.inUse) {
+            //The same SQL is already open on this connection, so hand out a plain statement
+            misses.increment();
+            return connection.prepareStatement(sql);
+        }
+        if (entry == null) {
+            misses.increment();
+            entry = new Entry(connection.prepareStatement(sql));
+            entries.put(sql, entry);
+        } else {
+            hits.increment();
+        }
+        entry.inUse = true;
+        return wrap(sql, entry);
+    }
+
+    /**
+     * Closes every cached statement; called before the connection itself is closed
+     */
+    void closeAll() {
+        for (Entry entry : entries.values()) {
+            closeQuietly(entry.physical);
+        }
+        entries.clear();
+    }
+
+    private PreparedStatement wrap(String sql, Entry entry) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new InvocationHandler() {
+                    private boolean returned;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (!returned) {
+                                    returned = true;
+                                    release(sql, entry);
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                return returned || entry.physical.isClosed();
+                            }
+                            default -> {
+                                if (returned) {
+                                    throw new SQLException("Statement has been closed");
+                                }
+                            }
+                        }
+                        try {
+                            return method.invoke(entry.physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private void release(String sql, Entry entry) throws SQLException {
+        entry.inUse = false;
+        if (entries.get(sql) != entry) {
+            //Evicted while in use
+            entry.physical.close();
+            return;
+        }
+        entry.physical.clearParameters();
+        entry.physical.clearBatch();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            //The statement is being thrown away either way
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package dataaccess;
+
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Puts a memory buffer in front of another GameDAO. Game updates are kept in memory and
+ * acknowledged at once, then written to the underlying DAO in batches, either every flush
+ * interval or as soon as enough games are waiting.
+ * <p>
+ * Reads see buffered updates before they are written. Only the latest version of a game is
+ * written, so several moves in one game between flushes cost one write. Updates still in
+ * memory are lost if the process dies before {@link #close()} runs.
+ * <p>
+ * The buffer is bounded. Once {@code maxPending} games are waiting, an update to a game
+ * that is not already buffered flushes on the caller's thread first, so while the
+ * underlying DAO is failing callers get the error instead of memory filling up.
+ */
+public class WriteBehindGameDAO implements GameDAO, AutoCloseable {
+    private final GameDAO store;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<Integer, GameData> dirty = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    //Only one flush writes at a time so an older version can never overwrite a newer one.
+    //A lock rather than synchronized so a virtual thread waiting on the write is not pinned.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    //Set while background flushes keep failing, so the failure is logged once rather than every interval
+    private volatile boolean failing;
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder gamesWritten = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private WriteBehindGameDAO(GameDAO store, int batchSize, int maxPending) {
+        if (maxPending < batchSize) {
+            throw new IllegalArgumentException("Buffer limit must be at least the batch size");
+        }
+        this.store = store;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the buffer and starts its background flushes
+     *
+     * @param store         where games are finally written
+     * @param flushInterval milliseconds between background flushes
+     * @param batchSize     flush early once this many games are waiting
+     * @param maxPending    most games buffered before updates flush on the caller's thread
+     */
+    public static WriteBehindGameDAO start(GameDAO store, long flushInterval, int batchSize, int maxPending) {
+        var dao = new WriteBehindGameDAO(store, batchSize, maxPending);
+        dao.flusher.scheduleWithFixedDelay(dao::flushInBackground, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+        return dao;
+    }
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        return store.createGame(gameName);
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData buffered = dirty.get(gameID);
+        return buffered != null ? buffered.copy() : store.getGame(gameID);
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        List<GameData> games = new ArrayList<>();
+        for (GameData game : store.listGames()) {
+            GameData buffered = dirty.get(game.gameID());
+            games.add(buffered != null ? buffered.copy() : game);
+        }
+        return games;
+    }
+
+    /**
+     * Buffers the update and returns without touching the database unless the buffer is
+     * full. The game is copied, so the caller may keep changing its own ChessGame.
+     *
+     * @throws DataAccessException if the buffer is full and flushing it fails
+     */
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        if (dirty.size() >= maxPending && !dirty.containsKey(game.gameID())) {
+            flush();
+        }
+        dirty.put(game.gameID(), game.copy());
+        if (dirty.size() >= batchSize) {
+            try {
+                flusher.execute(this::flushInBackground);
+            } catch (RejectedExecutionException e) {
+                //Closing; close() writes everything still buffered
+            }
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        flushLock.lock();
+        try {
+            dirty.clear();
+            store.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every buffered game to the underlying DAO now
+     */
+    public void flush() throws DataAccessException {
+        flushLock.lock();
+        try {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            Map<Integer, GameData> batch = new HashMap<>(dirty);
+            store.updateGames(batch.values());
+            //Games updated again during the write stay buffered for the next flush. Compared by
+            //identity, since a game equals an earlier version of itself when the position repeats.
+            batch.forEach((id, written) ->
+                    dirty.computeIfPresent(id, (key, pending) -> pending == written ? null : pending));
+            flushes.increment();
+            gamesWritten.add(batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return games waiting to be written
+     */
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getGamesWritten() {
+        return gamesWritten.sum();
+    }
+
+    /**
+     * @return background flushes that failed; their games stay buffered and are retried
+     */
+    public long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * Stops the background flushes and writes whatever is still buffered
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+            if (failing) {
+                failing = false;
+                System.err.println("Buffered game writes are succeeding again");
+            }
+        } catch (DataAccessException | RuntimeException e) {
+            failedFlushes.increment();
+            if (!failing) {
+                failing = true;
+                System.err.println("Unable to write buffered games, " + dirty.size() + " waiting: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+import chess.ChessGame;
+
+/**
+ * A game as stored by the server
+ *
+ * @param gameID        unique id of the game
+ * @param whiteUsername player of the white pieces, or null while the seat is open
+ * @param blackUsername player of the black pieces, or null while the seat is open
+ * @param gameName      name given when the game was created
+ * @param game          the game's current state
+ */
+public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+
+    /**
+     * @return a copy holding its own ChessGame, so later moves in either one do not affect the other
+     */
+    public GameData copy() {
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game == null ? null : new ChessGame(game));
+    }
+}
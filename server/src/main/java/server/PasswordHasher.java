@@ -0,0 +1,153 @@
+package server;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt on a small pool of its own instead of on request threads. Each hash costs
+ * about 100ms of CPU, so a burst of logins would otherwise tie up the threads that serve
+ * moves. The pool's queue is bounded, and once it is full further requests fail at once
+ * with {@link BusyException} rather than waiting behind hashes that will take seconds.
+ */
+public class PasswordHasher implements AutoCloseable {
+    /**
+     * Thrown when the hashing queue is full
+     */
+    public static class BusyException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public BusyException(long retryAfterSeconds) {
+            super("Error: server busy, try again later");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        /**
+         * @return roughly how long until the queued hashes have drained
+         */
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    /**
+     * @param queued     hashes waiting for a thread
+     * @param running    hashes in progress
+     * @param completed  hashes finished
+     * @param rejected   requests turned away because the queue was full
+     * @param meanMillis average time spent hashing, not counting the wait in the queue
+     * @param maxMillis  longest time spent hashing
+     */
+    public record Stats(int queued, int running, long completed, long rejected, double meanMillis, double maxMillis) {
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param threads    hashes that may run at once
+     * @param queueLimit hashes that may wait for a thread before requests are rejected
+     */
+    public PasswordHasher(int threads, int queueLimit) {
+        this.threads = threads;
+        var count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueLimit), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return the BCrypt hash of the password with a new salt
+     * @throws BusyException if too many hashes are already waiting
+     */
+    public String hash(String password) {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt()));
+    }
+
+    /**
+     * @return whether the password matches the stored BCrypt hash, false if the hash is malformed
+     * @throws BusyException if too many hashes are already waiting
+     */
+    public boolean matches(String password, String hash) {
+        return run(() -> {
+            try {
+                return BCrypt.checkpw(password, hash);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                //jBCrypt throws these for a hash that is not in BCrypt's format or is cut short
+                return false;
+            }
+        });
+    }
+
+    public Stats getStats() {
+        long done = completed.sum();
+        double mean = done == 0 ? 0 : hashNanos.sum() / 1e6 / done;
+        return new Stats(executor.getQueue().size(), executor.getActiveCount(), done, rejected.sum(), mean,
+                maxHashNanos.get() / 1e6);
+    }
+
+    /**
+     * Stops the hashing threads once the queued hashes finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    //Waits on the calling thread for the result, which only holds a cheap request thread
+    <T> T run(Callable<T> hashing) {
+        Future<T> task;
+        try {
+            task = executor.submit(() -> timed(hashing));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException(retryAfterSeconds());
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hashing failed", e.getCause());
+        }
+    }
+
+    //Time for the queue to drain at the average hash time, at least one second
+    private long retryAfterSeconds() {
+        long done = completed.sum();
+        double meanNanos = done == 0 ? TimeUnit.MILLISECONDS.toNanos(100) : (double) hashNanos.sum() / done;
+        double drainNanos = meanNanos * (executor.getQueue().size() + threads) / threads;
+        return Math.max(1, (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private <T> T timed(Callable<T> hashing) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hashing.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulate(elapsed);
+            completed.increment();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package server;
+
+import com.google.gson.Gson;
+import dataaccess.AuthDAO;
+import dataaccess.CachingGameDAO;
+import dataaccess.DataAccessException;
+import dataaccess.DatabaseManager;
+import dataaccess.WriteBehindGameDAO;
+import spark.*;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+
+import java.util.Map;
+
+public class Server {
+    //Move updates are written to MySQL at most this long after they are acknowledged
+    private static final long GAME_FLUSH_MILLIS = 200;
+    private static final int GAME_FLUSH_BATCH = 64;
+    //Past this many buffered games, updates wait for a flush instead of growing the buffer
+    private static final int GAME_BUFFER_LIMIT = 4096;
+    //Games being played stay in memory; ones untouched this long are reloaded when next used
+    private static final int GAME_CACHE_SIZE = 1024;
+    private static final long GAME_CACHE_IDLE_MILLIS = 30 * 60 * 1000;
+    //Password hashing gets a few threads of its own; logins beyond the queue are turned away
+    private static final int HASH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int HASH_QUEUE_LIMIT = 64;
+    private static final String PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    private final boolean virtualThreads;
+    private WriteBehindGameDAO gameWriter;
+    private CachingGameDAO gameDAO;
+    private AuthDAO authDAO;
+    private PasswordHasher passwordHasher;
+
+    public Server() {
+        this(false);
+    }
+
+    /**
+     * @param virtualThreads run HTTP handlers on virtual threads instead of Jetty's fixed pool;
+     *                       requires {@link #configureVirtualThreads()} at startup
+     */
+    public Server(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int run(int desiredPort) {
+        if (virtualThreads && System.getProperty(PARALLELISM) == null) {
+            throw new IllegalStateException("Call Server.configureVirtualThreads() when the program starts, "
+                    + "or set -D" + PARALLELISM + ", before running on virtual threads");
+        }
+        try {
+            gameWriter = WriteBehindGameDAO.start(DatabaseManager.createGameDAO(), GAME_FLUSH_MILLIS,
+                    GAME_FLUSH_BATCH, GAME_BUFFER_LIMIT);
+            gameDAO = new CachingGameDAO(gameWriter, GAME_CACHE_SIZE, GAME_CACHE_IDLE_MILLIS);
+            authDAO = DatabaseManager.createAuthDAO();
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Unable to start the data store: " + e.getMessage(), e);
+        }
+
+        passwordHasher = new PasswordHasher(HASH_THREADS, HASH_QUEUE_LIMIT);
+
+        //Spark keeps one factory for the whole process, so put back the default when not wanted
+        EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, virtualThreads
+                ? new EmbeddedJettyFactory().withThreadPool(new VirtualThreadPool())
+                : new EmbeddedJettyFactory());
+
+        Spark.port(desiredPort);
+
+        Spark.staticFiles.location("web");
+
+        Spark.delete("/db", this::clear);
+        mapExceptions();
+
+        Spark.awaitInitialization();
+        return Spark.port();
+    }
+
+    //Turns a failed data store into 500 and a full hashing queue into 503 with Retry-After
+    static void mapExceptions() {
+        Spark.exception(DataAccessException.class, (e, req, res) -> {
+            res.status(500);
+            res.type("application/json");
+            res.body(new Gson().toJson(Map.of("message", "Error: " + e.getMessage())));
+        });
+        Spark.exception(PasswordHasher.BusyException.class, (e, req, res) -> {
+            res.status(503);
+            res.header("Retry-After", Long.toString(e.getRetryAfterSeconds()));
+            res.type("application/json");
+            res.body(new Gson().toJson(Map.of("message", e.getMessage())));
+        });
+    }
+
+    //Deletes every game and, with random tokens, every session. Signed tokens cannot be
+    //recalled, so with auth keys configured issued tokens keep working until they expire.
+    private Object clear(Request req, Response res) throws DataAccessException {
+        gameDAO.clear();
+        authDAO.clear();
+        res.type("application/json");
+        return "{}";
+    }
+
+    /**
+     * @return queue depth and hash time for password hashing
+     */
+    public PasswordHasher.Stats getHashStats() {
+        return passwordHasher.getStats();
+    }
+
+    /**
+     * Sizes the virtual thread scheduler for a server run with virtual threads: at least one
+     * carrier thread per database connection, since the MySQL driver blocks inside
+     * synchronized code and pins its virtual thread to the carrier. The JVM reads the setting
+     * once, when the first virtual thread starts, so call this first thing in main. A value
+     * already given with {@code -Djdk.virtualThreadScheduler.parallelism} is kept.
+     */
+    public static void configureVirtualThreads() {
+        int carriers = Math.max(Runtime.getRuntime().availableProcessors(),
+                DatabaseManager.getPoolStats().maxSize() + 1);
+        if (System.getProperty(PARALLELISM) == null) {
+            System.setProperty(PARALLELISM, Integer.toString(carriers));
+        }
+    }
+
+    public void stop() {
+        Spark.stop();
+        Spark.awaitStop();
+        if (passwordHasher != null) {
+            passwordHasher.close();
+        }
+        //No more requests can arrive, so write out every buffered game before the pool closes
+        if (gameWriter != null) {
+            try {
+                gameWriter.close();
+            } catch (DataAccessException e) {
+                System.err.println("Unable to write buffered games: " + e.getMessage());
+            }
+        }
+        DatabaseManager.closePool();
+    }
+}
@@ -0,0 +1,97 @@
+package server;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.eclipse.jetty.util.thread.TryExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Jetty thread pool that starts a new virtual thread for every task. Handlers that block
+ * on JDBC park their virtual thread instead of holding a pool thread, so there is no thread
+ * count to tune and the connection pool is what limits concurrent database work.
+ * <p>
+ * Jetty runs WebSocket frames on its server pool as well, so once a WebSocket endpoint is
+ * registered its messages will be handled on virtual threads too.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool, TryExecutor {
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private ExecutorService executor;
+
+    @Override
+    protected void doStart() throws Exception {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jetty-virtual-", 0).factory());
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        executor.shutdown();
+        executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (executor == null) {
+            throw new RejectedExecutionException("Thread pool has not started");
+        }
+        running.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Always runs the task, since starting a virtual thread never has to wait for a free one
+     */
+    @Override
+    public boolean tryExecute(Runnable task) {
+        try {
+            execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        while (executor != null && !executor.awaitTermination(1, TimeUnit.DAYS)) {
+            //Keep waiting until the pool is stopped
+        }
+    }
+
+    /**
+     * @return tasks currently running
+     */
+    @Override
+    public int getThreads() {
+        return running.get();
+    }
+
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+}
@@ -0,0 +1,163 @@
+package server.websocket;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import websocket.messages.ServerMessage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the WebSocket sessions of the players and observers in each game.
+ * <p>
+ * Each game's sessions are a copy-on-write set: sessions join and leave rarely but every
+ * move is sent to all of them, so broadcasts iterate without any lock. A message is turned
+ * into JSON once per broadcast and written to each session with an async send, so one slow
+ * client does not hold up the rest. Sessions that are closed or whose write fails are
+ * removed as the broadcast finds them.
+ */
+public class ConnectionManager {
+    private static final Gson GSON = new Gson();
+
+    private final Map<Integer, Set<Session>> games = new ConcurrentHashMap<>();
+    private final LoadGamePayloads loadGamePayloads = new LoadGamePayloads();
+
+    private final LongAdder sends = new LongAdder();
+    private final LongAdder failedSends = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+
+    public void add(int gameID, Session session) {
+        //Added inside compute so a concurrent remove cannot drop the set out from under it
+        games.compute(gameID, (id, sessions) -> {
+            Set<Session> joined = sessions != null ? sessions : new CopyOnWriteArraySet<>();
+            joined.add(session);
+            return joined;
+        });
+    }
+
+    /**
+     * @return whether the session was registered for the game
+     */
+    public boolean remove(int gameID, Session session) {
+        boolean[] removed = new boolean[1];
+        //Drops the game's set and cached payload once its last session leaves
+        games.computeIfPresent(gameID, (id, sessions) -> {
+            removed[0] = sessions.remove(session);
+            if (sessions.isEmpty()) {
+                loadGamePayloads.remove(gameID);
+                return null;
+            }
+            return sessions;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Sends a message to every session in the game except {@code exclude}, which may be null
+     */
+    public void broadcast(int gameID, ServerMessage message, Session exclude) {
+        broadcast(gameID, GSON.toJson(message), exclude);
+    }
+
+    /**
+     * Sends already serialized JSON to every session in the game except {@code exclude}
+     */
+    public void broadcast(int gameID, String json, Session exclude) {
+        Set<Session> sessions = games.get(gameID);
+        if (sessions == null) {
+            return;
+        }
+        for (Session session : sessions) {
+            if (session != exclude) {
+                send(gameID, session, json);
+            }
+        }
+    }
+
+    /**
+     * Sends LOAD_GAME for the game's current state to every session in the game except
+     * {@code exclude}, reusing the serialized payload while the game is unchanged
+     */
+    public void broadcastGame(int gameID, ChessGame game, Session exclude) {
+        broadcast(gameID, loadGamePayloads.get(gameID, game), exclude);
+    }
+
+    /**
+     * Sends LOAD_GAME for the game's current state to a single session, such as one that
+     * has just connected
+     */
+    public void sendGame(int gameID, Session session, ChessGame game) {
+        send(gameID, session, loadGamePayloads.get(gameID, game));
+    }
+
+    /**
+     * Sends a message to a single session
+     */
+    public void send(int gameID, Session session, ServerMessage message) {
+        send(gameID, session, GSON.toJson(message));
+    }
+
+    public void send(int gameID, Session session, String json) {
+        if (!session.isOpen()) {
+            prune(gameID, session);
+            return;
+        }
+        sends.increment();
+        try {
+            session.getRemote().sendString(json, new WriteCallback() {
+                @Override
+                public void writeFailed(Throwable cause) {
+                    failedSends.increment();
+                    prune(gameID, session);
+                }
+
+                @Override
+                public void writeSuccess() {
+                }
+            });
+        } catch (RuntimeException e) {
+            //A session closing under us can throw instead of calling writeFailed; skip it so the
+            //rest of the broadcast still goes out
+            failedSends.increment();
+            prune(gameID, session);
+        }
+    }
+
+    /**
+     * @return sessions currently registered for the game
+     */
+    public int getSessionCount(int gameID) {
+        Set<Session> sessions = games.get(gameID);
+        return sessions == null ? 0 : sessions.size();
+    }
+
+    public long getSendCount() {
+        return sends.sum();
+    }
+
+    public long getFailedSendCount() {
+        return failedSends.sum();
+    }
+
+    /**
+     * @return sessions removed because they had closed or could not be written to
+     */
+    public long getPrunedCount() {
+        return pruned.sum();
+    }
+
+    public LoadGamePayloads getLoadGamePayloads() {
+        return loadGamePayloads;
+    }
+
+    private void prune(int gameID, Session session) {
+        if (remove(gameID, session)) {
+            pruned.increment();
+        }
+    }
+}
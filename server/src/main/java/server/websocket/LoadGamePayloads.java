@@ -0,0 +1,77 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.MoveList;
+import com.google.gson.Gson;
+import websocket.messages.LoadGameMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the serialized LOAD_GAME message for the current state of each game. The JSON is
+ * the same for every recipient, so it is built once per move and reused for the broadcast
+ * and for every CONNECT until the game changes again.
+ * <p>
+ * A payload is reused only while the game's position key and whole move history are
+ * unchanged. Comparing the history, not just its length, means a game that is reset and
+ * played back to the same position by other moves still gets a fresh payload.
+ */
+public class LoadGamePayloads {
+    private static final Gson GSON = new Gson();
+
+    private record Payload(MoveList history, long positionKey, String json) {
+        boolean matches(ChessGame game) {
+            return positionKey == game.getPositionKey() && history.equals(game.getMoveHistory());
+        }
+    }
+
+    private final Map<Integer, Payload> payloads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @return the LOAD_GAME JSON for the game in its current state, serialized only if the
+     * game has changed since the last call
+     */
+    public String get(int gameID, ChessGame game) {
+        Payload cached = payloads.get(gameID);
+        if (cached != null && cached.matches(game)) {
+            hits.increment();
+            return cached.json();
+        }
+        //Serialized inside compute so concurrent callers for the same new state share one copy
+        return payloads.compute(gameID, (id, current) -> {
+            if (current != null && current.matches(game)) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            return new Payload(new MoveList(game.getMoveHistory().toArray()), game.getPositionKey(),
+                    GSON.toJson(new LoadGameMessage(game)));
+        }).json();
+    }
+
+    /**
+     * Drops the game's payload, for when it has ended or no one is connected to it
+     */
+    public void remove(int gameID) {
+        payloads.remove(gameID);
+    }
+
+    /**
+     * @return requests answered with an already serialized payload
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return requests that had to serialize the game
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
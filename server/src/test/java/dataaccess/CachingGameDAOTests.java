@@ -0,0 +1,134 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CachingGameDAOTests {
+    //Long enough that nothing goes idle during a test
+    private static final long NEVER = 60 * 60 * 1000;
+    //Room for 2 games in probation and 8 in protected
+    private static final int MAX_GAMES = 10;
+
+    private static FakeGameDAO storeWithGames(int count) {
+        var store = new FakeGameDAO();
+        for (int i = 1; i <= count; i++) {
+            store.games.put(i, new GameData(i, "white", "black", "game " + i, null));
+        }
+        return store;
+    }
+
+    @Test
+    @DisplayName("A Second Use Protects a Game")
+    public void secondUsePromotes() throws DataAccessException {
+        var store = storeWithGames(20);
+        var cache = new CachingGameDAO(store, MAX_GAMES, NEVER);
+        cache.getGame(1);
+        cache.getGame(1);
+        cache.getGame(2);
+        for (int i = 3; i <= 8; i++) {
+            cache.getGame(i);
+        }
+        int reads = store.reads.get();
+
+        //Game 1 was used twice and survived the later lookups; game 2 was used once and did not
+        cache.getGame(1);
+        Assertions.assertEquals(reads, store.reads.get());
+        cache.getGame(2);
+        Assertions.assertEquals(reads + 1, store.reads.get());
+    }
+
+    @Test
+    @DisplayName("A Scan Only Evicts Probation Games")
+    public void scanResistant() throws DataAccessException {
+        var store = storeWithGames(200);
+        var cache = new CachingGameDAO(store, MAX_GAMES, NEVER);
+        for (int i = 1; i <= 8; i++) {
+            cache.getGame(i);
+            cache.getGame(i);
+        }
+        for (int i = 100; i < 200; i++) {
+            cache.getGame(i);
+        }
+        int reads = store.reads.get();
+        for (int i = 1; i <= 8; i++) {
+            cache.getGame(i);
+        }
+        Assertions.assertEquals(reads, store.reads.get());
+
+        var stats = cache.getStats();
+        Assertions.assertEquals(MAX_GAMES, stats.size());
+        Assertions.assertEquals(98, stats.evictions());
+    }
+
+    @Test
+    @DisplayName("Idle Games Expire")
+    public void idleExpiry() throws Exception {
+        var store = storeWithGames(1);
+        var cache = new CachingGameDAO(store, MAX_GAMES, 50);
+        cache.getGame(1);
+        Thread.sleep(100);
+        cache.getGame(1);
+        Assertions.assertEquals(2, store.reads.get());
+        Assertions.assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    @DisplayName("Cached Games Are Copied In and Out")
+    public void copiesInAndOut() throws DataAccessException, InvalidMoveException {
+        var store = new FakeGameDAO();
+        var cache = new CachingGameDAO(store, MAX_GAMES, NEVER);
+        var written = new GameData(1, "white", "black", "game", new ChessGame());
+        cache.updateGame(written);
+
+        written.game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        GameData read = cache.getGame(1);
+        Assertions.assertEquals(0, read.game().getMoveHistory().size());
+
+        read.game().makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        Assertions.assertEquals(0, cache.getGame(1).game().getMoveHistory().size());
+    }
+
+    @Test
+    @DisplayName("A Load Does Not Replace a Newer Update")
+    public void staleLoadDoesNotOverwrite() throws DataAccessException {
+        var cache = new CachingGameDAO[1];
+        var store = new FakeGameDAO() {
+            @Override
+            public GameData getGame(int gameID) throws DataAccessException {
+                GameData stale = super.getGame(gameID);
+                //Another request updates the game while this load is in flight
+                cache[0].updateGame(new GameData(gameID, "white", "black", "newer", null));
+                return stale;
+            }
+        };
+        store.games.put(1, new GameData(1, "white", "black", "older", null));
+        cache[0] = new CachingGameDAO(store, MAX_GAMES, NEVER);
+
+        Assertions.assertEquals("newer", cache[0].getGame(1).gameName());
+        Assertions.assertEquals("newer", cache[0].getGame(1).gameName());
+    }
+
+    @Test
+    @DisplayName("Stats Count Hits and Misses")
+    public void stats() throws DataAccessException {
+        var store = storeWithGames(2);
+        var cache = new CachingGameDAO(store, MAX_GAMES, NEVER);
+        cache.getGame(1);
+        cache.getGame(1);
+        cache.getGame(1);
+        cache.getGame(2);
+
+        var stats = cache.getStats();
+        Assertions.assertEquals(2, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+        Assertions.assertEquals(0.5, stats.hitRate());
+        Assertions.assertEquals(0, stats.evictions());
+        Assertions.assertEquals(2, stats.size());
+    }
+}
@@ -0,0 +1,136 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ConnectionPoolTests {
+    //Long enough that nothing ages out during a test
+    private static final long NEVER = 60 * 60 * 1000;
+
+    private final List<FakeConnection> opened = new CopyOnWriteArrayList<>();
+
+    private ConnectionPool pool(int maxSize, long borrowTimeout, long maxLifetime) {
+        return new ConnectionPool(() -> {
+            var connection = new FakeConnection();
+            opened.add(connection);
+            return connection.connection;
+        }, new ConnectionPool.Settings(maxSize, borrowTimeout, NEVER, maxLifetime, 1, 0));
+    }
+
+    private ConnectionPool pool(int maxSize, long borrowTimeout) {
+        return pool(maxSize, borrowTimeout, NEVER);
+    }
+
+    @Test
+    @DisplayName("Borrow Times Out When Every Connection Is in Use")
+    public void borrowTimeout() throws Exception {
+        try (var pool = pool(1, 50)) {
+            try (var held = pool.getConnection()) {
+                long start = System.currentTimeMillis();
+                Assertions.assertThrows(DataAccessException.class, pool::getConnection);
+                Assertions.assertTrue(System.currentTimeMillis() - start >= 50);
+            }
+            var stats = pool.getStats();
+            Assertions.assertEquals(1, stats.timeouts());
+            Assertions.assertEquals(1, stats.saturatedBorrows());
+            //The held connection came back, so the next borrow does not wait
+            try (var next = pool.getConnection()) {
+                Assertions.assertEquals(1, opened.size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Connections Past Their Lifetime Are Replaced")
+    public void maxLifetime() throws Exception {
+        try (var pool = pool(1, 1000, 50)) {
+            pool.getConnection().close();
+            Thread.sleep(80);
+            pool.getConnection().close();
+            Assertions.assertEquals(2, opened.size());
+            Assertions.assertTrue(opened.get(0).closed);
+            Assertions.assertEquals(1, pool.getStats().discarded());
+        }
+    }
+
+    @Test
+    @DisplayName("Returning a Connection Twice Returns It Once")
+    public void doubleClose() throws Exception {
+        try (var pool = pool(1, 50)) {
+            Connection connection = pool.getConnection();
+            connection.close();
+            connection.close();
+            Assertions.assertTrue(connection.isClosed());
+            Assertions.assertThrows(SQLException.class, connection::getAutoCommit);
+
+            var stats = pool.getStats();
+            Assertions.assertEquals(0, stats.active());
+            Assertions.assertEquals(1, stats.idle());
+            //Only one permit went back, so a second borrow while one is held still times out
+            try (var held = pool.getConnection()) {
+                Assertions.assertThrows(DataAccessException.class, pool::getConnection);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid Idle Connections Are Replaced on Borrow")
+    public void validation() throws Exception {
+        try (var pool = pool(2, 1000)) {
+            pool.getConnection().close();
+            opened.get(0).valid = false;
+            try (var connection = pool.getConnection()) {
+                Assertions.assertEquals(2, opened.size());
+                Assertions.assertTrue(opened.get(0).closed);
+                Assertions.assertFalse(opened.get(1).closed);
+            }
+            Assertions.assertEquals(1, pool.getStats().discarded());
+        }
+    }
+
+    @Test
+    @DisplayName("Returned Connections Get Their Settings Back")
+    public void settingsReset() throws Exception {
+        try (var pool = pool(1, 1000)) {
+            try (var connection = pool.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                connection.setReadOnly(true);
+                connection.setCatalog("other");
+            }
+            var physical = opened.get(0);
+            Assertions.assertEquals(1, physical.rollbacks);
+            Assertions.assertTrue(physical.autoCommit);
+            Assertions.assertEquals(Connection.TRANSACTION_REPEATABLE_READ, physical.isolation);
+            Assertions.assertFalse(physical.readOnly);
+            Assertions.assertEquals("chess", physical.catalog);
+            try (var connection = pool.getConnection()) {
+                Assertions.assertEquals(1, opened.size());
+                Assertions.assertEquals("chess", connection.getCatalog());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pooled Connections Compare by Identity")
+    public void identity() throws Exception {
+        try (var pool = pool(2, 1000);
+             var first = pool.getConnection();
+             var second = pool.getConnection()) {
+            Assertions.assertEquals(first, first);
+            Assertions.assertNotEquals(first, second);
+            var set = new HashSet<Connection>();
+            set.add(first);
+            set.add(second);
+            Assertions.assertTrue(set.contains(first));
+            Assertions.assertEquals(2, set.size());
+        }
+    }
+}
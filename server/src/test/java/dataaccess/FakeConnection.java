@@ -0,0 +1,105 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JDBC connection that keeps its settings in fields and records the statements it prepares
+ */
+class FakeConnection implements InvocationHandler {
+    /**
+     * Prepared statement that records whether it was closed or reset
+     */
+    static class FakeStatement implements InvocationHandler {
+        final String sql;
+        final PreparedStatement statement;
+        volatile boolean closed;
+        volatile int parameterClears;
+
+        FakeStatement(String sql) {
+            this.sql = sql;
+            this.statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "close" -> {
+                    closed = true;
+                    yield null;
+                }
+                case "isClosed" -> closed;
+                case "clearParameters" -> {
+                    parameterClears++;
+                    yield null;
+                }
+                case "executeUpdate" -> 1;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> null;
+            };
+        }
+    }
+
+    final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, this);
+    final List<FakeStatement> statements = new CopyOnWriteArrayList<>();
+    volatile boolean closed;
+    volatile boolean valid = true;
+    volatile boolean autoCommit = true;
+    volatile int rollbacks;
+    volatile int isolation = Connection.TRANSACTION_REPEATABLE_READ;
+    volatile boolean readOnly;
+    volatile String catalog = "chess";
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "close" -> {
+                closed = true;
+                yield null;
+            }
+            case "isClosed" -> closed;
+            case "isValid" -> valid && !closed;
+            case "getAutoCommit" -> autoCommit;
+            case "setAutoCommit" -> {
+                autoCommit = (Boolean) args[0];
+                yield null;
+            }
+            case "rollback" -> {
+                rollbacks++;
+                yield null;
+            }
+            case "getTransactionIsolation" -> isolation;
+            case "setTransactionIsolation" -> {
+                isolation = (Integer) args[0];
+                yield null;
+            }
+            case "isReadOnly" -> readOnly;
+            case "setReadOnly" -> {
+                readOnly = (Boolean) args[0];
+                yield null;
+            }
+            case "getCatalog" -> catalog;
+            case "setCatalog" -> {
+                catalog = (String) args[0];
+                yield null;
+            }
+            case "prepareStatement" -> {
+                var statement = new FakeStatement((String) args[0]);
+                statements.add(statement);
+                yield statement.statement;
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "FakeConnection";
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+}
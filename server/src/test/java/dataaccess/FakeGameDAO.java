@@ -0,0 +1,69 @@
+package dataaccess;
+
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory GameDAO that records every write and can be told to fail
+ */
+class FakeGameDAO implements GameDAO {
+    final Map<Integer, GameData> games = new ConcurrentHashMap<>();
+    final List<List<GameData>> batches = new CopyOnWriteArrayList<>();
+    final AtomicInteger reads = new AtomicInteger();
+    volatile boolean failing;
+    private final AtomicInteger nextID = new AtomicInteger(1);
+
+    @Override
+    public int createGame(String gameName) throws DataAccessException {
+        checkFailing();
+        int gameID = nextID.getAndIncrement();
+        games.put(gameID, new GameData(gameID, null, null, gameName, null));
+        return gameID;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        checkFailing();
+        reads.incrementAndGet();
+        return games.get(gameID);
+    }
+
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        checkFailing();
+        return new ArrayList<>(games.values());
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        updateGames(List.of(game));
+    }
+
+    @Override
+    public void updateGames(Collection<GameData> updated) throws DataAccessException {
+        checkFailing();
+        batches.add(List.copyOf(updated));
+        for (GameData game : updated) {
+            games.put(game.gameID(), game);
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        checkFailing();
+        games.clear();
+    }
+
+    private void checkFailing() throws DataAccessException {
+        if (failing) {
+            throw new DataAccessException("Database is down");
+        }
+    }
+}
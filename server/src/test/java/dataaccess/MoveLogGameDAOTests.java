@@ -0,0 +1,103 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class MoveLogGameDAOTests {
+    private static final int INTERVAL = 20;
+
+    //Plays moves written like "e2e4" from the starting position
+    private static ChessGame play(String... moves) throws InvalidMoveException {
+        var game = new ChessGame();
+        for (String move : moves) {
+            game.makeMove(new ChessMove(new ChessPosition(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                    new ChessPosition(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null));
+        }
+        return game;
+    }
+
+    private static short[] history(String... moves) throws InvalidMoveException {
+        return play(moves).getMoveHistory().toArray();
+    }
+
+    @Test
+    @DisplayName("New Moves Are Appended")
+    public void append() throws InvalidMoveException {
+        short[] stored = history("e2e4", "e7e5");
+        short[] current = history("e2e4", "e7e5", "g1f3", "b8c6");
+        var write = MoveLogGameDAO.plan(stored, 0, current, INTERVAL);
+        Assertions.assertEquals(2, write.keep());
+        Assertions.assertFalse(write.snapshot());
+
+        //Nothing new to write
+        write = MoveLogGameDAO.plan(current, 0, current, INTERVAL);
+        Assertions.assertEquals(4, write.keep());
+        Assertions.assertFalse(write.snapshot());
+    }
+
+    @Test
+    @DisplayName("Position Is Saved Every Interval")
+    public void snapshotInterval() throws InvalidMoveException {
+        short[] stored = history("e2e4", "e7e5", "g1f3");
+        short[] current = history("e2e4", "e7e5", "g1f3", "b8c6");
+        Assertions.assertTrue(MoveLogGameDAO.plan(stored, 0, current, 4).snapshot());
+        Assertions.assertFalse(MoveLogGameDAO.plan(stored, 0, current, 5).snapshot());
+        //Counted from the last snapshot, not the start of the game
+        Assertions.assertFalse(MoveLogGameDAO.plan(stored, 2, current, 4).snapshot());
+    }
+
+    @Test
+    @DisplayName("Reset Game Replaces the Old Moves")
+    public void reset() throws InvalidMoveException {
+        short[] stored = history("e2e4", "e7e5", "g1f3", "b8c6");
+
+        //Reset and played back past the old length before the next write
+        short[] replayed = history("d2d4", "d7d5", "c2c4", "e7e6", "b1c3");
+        var write = MoveLogGameDAO.plan(stored, 2, replayed, INTERVAL);
+        Assertions.assertEquals(0, write.keep());
+        Assertions.assertTrue(write.snapshot());
+
+        //Same opening, then a different move after the snapshot
+        short[] branched = history("e2e4", "e7e5", "g1f3", "g8f6");
+        write = MoveLogGameDAO.plan(stored, 2, branched, INTERVAL);
+        Assertions.assertEquals(3, write.keep());
+        Assertions.assertFalse(write.snapshot());
+
+        //Undone to before the snapshot
+        write = MoveLogGameDAO.plan(stored, 2, history("e2e4"), INTERVAL);
+        Assertions.assertEquals(1, write.keep());
+        Assertions.assertTrue(write.snapshot());
+
+        //Reset to a position with no moves, which may not be the starting one
+        write = MoveLogGameDAO.plan(stored, 0, new short[0], INTERVAL);
+        Assertions.assertEquals(0, write.keep());
+        Assertions.assertTrue(write.snapshot());
+    }
+
+    @Test
+    @DisplayName("Reload Rebuilds the Game From Its Snapshot and Log")
+    public void reload() throws InvalidMoveException, DataAccessException {
+        String[] moves = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "e1g1", "f8c5"};
+        ChessGame game = play(moves);
+        ChessGame atSnapshot = play(Arrays.copyOf(moves, 5));
+        var snapshot = new MoveLogGameDAO.Snapshot(7, "white", "black", "game", atSnapshot.snapshot());
+
+        GameData loaded = MoveLogGameDAO.rebuild(snapshot, game.getMoveHistory());
+        Assertions.assertEquals(7, loaded.gameID());
+        Assertions.assertEquals("white", loaded.whiteUsername());
+        Assertions.assertEquals(game, loaded.game());
+        Assertions.assertArrayEquals(game.getMoveHistory().toArray(), loaded.game().getMoveHistory().toArray());
+
+        //A log that ends before its snapshot cannot be rebuilt
+        Assertions.assertThrows(DataAccessException.class,
+                () -> MoveLogGameDAO.rebuild(snapshot, play("e2e4").getMoveHistory()));
+    }
+}
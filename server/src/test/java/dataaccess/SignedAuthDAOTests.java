@@ -0,0 +1,133 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SignedAuthDAOTests {
+    private static final long DAY = 24 * 60 * 60 * 1000;
+    private static final byte[] FIRST_KEY = "first-test-key-0123456789abcdef!".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SECOND_KEY = "second-test-key-0123456789abcde!".getBytes(StandardCharsets.UTF_8);
+
+    //Keeps revocations in memory in place of the revoked_token table
+    private static class MemoryRevocations implements SignedAuthDAO.RevocationStore {
+        final Map<String, Long> saved = new ConcurrentHashMap<>();
+
+        @Override
+        public Map<String, Long> load(long now) {
+            saved.values().removeIf(expiresAt -> expiresAt <= now);
+            return new HashMap<>(saved);
+        }
+
+        @Override
+        public void add(String tokenId, long expiresAt) {
+            saved.put(tokenId, expiresAt);
+        }
+
+        @Override
+        public void clear() {
+            saved.clear();
+        }
+    }
+
+    private static SignedAuthDAO signedWith(String signingKeyId, Map<String, byte[]> keys, long maxAgeMillis) {
+        return new SignedAuthDAO(keys, signingKeyId, maxAgeMillis, new MemoryRevocations());
+    }
+
+    //Replaces one dot separated part of a token
+    private static String withPart(String token, int index, String part) {
+        String[] parts = token.split("\\.", -1);
+        parts[index] = part;
+        return String.join(".", parts);
+    }
+
+    @Test
+    @DisplayName("Issued Token Is Accepted")
+    public void roundTrip() {
+        var dao = signedWith("k1", Map.of("k1", FIRST_KEY), DAY);
+        var auth = dao.createAuth("alice");
+        var found = dao.getAuth(auth.authToken());
+        Assertions.assertNotNull(found);
+        Assertions.assertEquals("alice", found.username());
+        Assertions.assertEquals(auth.authToken(), found.authToken());
+    }
+
+    @Test
+    @DisplayName("Tampered Token Is Rejected")
+    public void tampered() {
+        var dao = signedWith("k1", Map.of("k1", FIRST_KEY), DAY);
+        String token = dao.createAuth("alice").authToken();
+        String mallory = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("mallory".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertNull(dao.getAuth(withPart(token, 1, mallory)));
+        Assertions.assertNull(dao.getAuth(withPart(token, 2, Long.toString(System.currentTimeMillis() + DAY))));
+
+        String signature = token.split("\\.")[4];
+        char flipped = signature.charAt(0) == 'A' ? 'B' : 'A';
+        Assertions.assertNull(dao.getAuth(withPart(token, 4, flipped + signature.substring(1))));
+        Assertions.assertNull(dao.getAuth(token.substring(0, token.lastIndexOf('.'))));
+        Assertions.assertNull(dao.getAuth("not a token"));
+    }
+
+    @Test
+    @DisplayName("Expired Token Is Rejected")
+    public void expired() {
+        var dao = signedWith("k1", Map.of("k1", FIRST_KEY), 0);
+        Assertions.assertNull(dao.getAuth(dao.createAuth("alice").authToken()));
+    }
+
+    @Test
+    @DisplayName("Token From a Retired Signing Key Is Still Accepted")
+    public void rotatedKey() {
+        var before = signedWith("k1", Map.of("k1", FIRST_KEY), DAY);
+        String oldToken = before.createAuth("alice").authToken();
+
+        var after = signedWith("k2", Map.of("k1", FIRST_KEY, "k2", SECOND_KEY), DAY);
+        String newToken = after.createAuth("bob").authToken();
+        Assertions.assertTrue(newToken.startsWith("k2."));
+        Assertions.assertEquals("alice", after.getAuth(oldToken).username());
+        Assertions.assertEquals("bob", after.getAuth(newToken).username());
+        //Servers that have not picked up the new key yet reject its tokens
+        Assertions.assertNull(before.getAuth(newToken));
+    }
+
+    @Test
+    @DisplayName("Token With an Unknown Key Id Is Rejected")
+    public void unknownKey() {
+        var other = signedWith("k3", Map.of("k3", FIRST_KEY), DAY);
+        var dao = signedWith("k1", Map.of("k1", FIRST_KEY), DAY);
+        String token = other.createAuth("alice").authToken();
+        Assertions.assertNull(dao.getAuth(token));
+        //Same key bytes under a known id still fail, since the key id is part of what is signed
+        Assertions.assertNull(dao.getAuth(withPart(token, 0, "k1")));
+    }
+
+    @Test
+    @DisplayName("Revoked Token Is Rejected After a Restart")
+    public void revoked() throws DataAccessException {
+        var revocations = new MemoryRevocations();
+        var dao = new SignedAuthDAO(Map.of("k1", FIRST_KEY), "k1", DAY, revocations);
+        String revokedToken = dao.createAuth("alice").authToken();
+        String otherToken = dao.createAuth("alice").authToken();
+
+        dao.deleteAuth(revokedToken);
+        Assertions.assertNull(dao.getAuth(revokedToken));
+        Assertions.assertNotNull(dao.getAuth(otherToken));
+        Assertions.assertEquals(1, dao.getRevokedCount());
+        Assertions.assertEquals(1, revocations.saved.size());
+
+        //Logging out twice is harmless
+        dao.deleteAuth(revokedToken);
+        Assertions.assertEquals(1, revocations.saved.size());
+
+        var restarted = SignedAuthDAO.open(Map.of("k1", FIRST_KEY), "k1", DAY, revocations);
+        Assertions.assertNull(restarted.getAuth(revokedToken));
+        Assertions.assertNotNull(restarted.getAuth(otherToken));
+    }
+}
@@ -0,0 +1,87 @@
+package dataaccess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StatementCacheTests {
+    private final FakeConnection connection = new FakeConnection();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private StatementCache cache(int maxStatements) {
+        return new StatementCache(connection.connection, maxStatements, hits, misses);
+    }
+
+    private FakeConnection.FakeStatement physical(String sql) {
+        return connection.statements.stream().filter(statement -> statement.sql.equals(sql)).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Closed Statement Is Reused for the Same SQL")
+    public void hit() throws SQLException {
+        var cache = cache(4);
+        cache.prepare("SELECT 1").close();
+        var again = cache.prepare("SELECT 1");
+        Assertions.assertEquals(1, connection.statements.size());
+        Assertions.assertEquals(1, hits.sum());
+        Assertions.assertEquals(1, misses.sum());
+        Assertions.assertEquals(1, physical("SELECT 1").parameterClears);
+        Assertions.assertFalse(physical("SELECT 1").closed);
+
+        //The same SQL while the cached one is open gets a separate statement
+        var second = cache.prepare("SELECT 1");
+        Assertions.assertEquals(2, connection.statements.size());
+        second.close();
+        again.close();
+        Assertions.assertTrue(again.isClosed());
+        Assertions.assertThrows(SQLException.class, again::executeUpdate);
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Statement Is Evicted and Closed")
+    public void lruEviction() throws SQLException {
+        var cache = cache(2);
+        cache.prepare("A").close();
+        cache.prepare("B").close();
+        cache.prepare("A").close();
+        cache.prepare("C").close();
+        Assertions.assertTrue(physical("B").closed);
+        Assertions.assertFalse(physical("A").closed);
+        Assertions.assertFalse(physical("C").closed);
+
+        cache.prepare("A").close();
+        Assertions.assertEquals(3, connection.statements.size());
+    }
+
+    @Test
+    @DisplayName("Statement Evicted While in Use Is Closed When Released")
+    public void evictedInUse() throws SQLException {
+        var cache = cache(1);
+        var held = cache.prepare("A");
+        cache.prepare("B").close();
+        Assertions.assertFalse(physical("A").closed);
+        held.close();
+        Assertions.assertTrue(physical("A").closed);
+    }
+
+    @Test
+    @DisplayName("Cached Statements Close With Their Connection")
+    public void closedWithConnection() throws Exception {
+        var pool = new ConnectionPool(() -> connection.connection,
+                new ConnectionPool.Settings(1, 1000, 60 * 60 * 1000, 60 * 60 * 1000, 1, 4));
+        try (var borrowed = pool.getConnection()) {
+            borrowed.prepareStatement("A").close();
+            borrowed.prepareStatement("B").close();
+        }
+        Assertions.assertFalse(physical("A").closed);
+        pool.close();
+        Assertions.assertTrue(physical("A").closed);
+        Assertions.assertTrue(physical("B").closed);
+        Assertions.assertTrue(connection.closed);
+        Assertions.assertEquals(2, pool.getStats().statementMisses());
+    }
+}
@@ -0,0 +1,142 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+
+public class WriteBehindGameDAOTests {
+    //Long enough that the timed flush never runs during a test
+    private static final long NEVER = 60 * 60 * 1000;
+
+    private static GameData version(int gameID, String name) {
+        return new GameData(gameID, "white", "black", name, null);
+    }
+
+    @Test
+    @DisplayName("Only the Latest Version of a Game Is Written")
+    public void coalesces() throws DataAccessException {
+        var store = new FakeGameDAO();
+        try (var writer = WriteBehindGameDAO.start(store, NEVER, 100, 100)) {
+            writer.updateGame(version(1, "first"));
+            writer.updateGame(version(1, "second"));
+            writer.updateGame(version(1, "third"));
+            Assertions.assertEquals(1, writer.getPendingCount());
+            Assertions.assertEquals("third", writer.getGame(1).gameName());
+            Assertions.assertTrue(store.batches.isEmpty());
+
+            writer.flush();
+            Assertions.assertEquals(1, store.batches.size());
+            Assertions.assertEquals(1, store.batches.get(0).size());
+            Assertions.assertEquals("third", store.games.get(1).gameName());
+            Assertions.assertEquals(0, writer.getPendingCount());
+            Assertions.assertEquals(1, writer.getGamesWritten());
+        }
+    }
+
+    @Test
+    @DisplayName("A Full Batch Flushes Without Waiting for the Interval")
+    public void batchSizeTriggersFlush() throws Exception {
+        var store = new FakeGameDAO();
+        try (var writer = WriteBehindGameDAO.start(store, NEVER, 2, 100)) {
+            writer.updateGame(version(1, "a"));
+            writer.updateGame(version(2, "b"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (store.games.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(2, store.games.size());
+            Assertions.assertEquals(1, writer.getFlushCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Close Writes Everything Still Buffered")
+    public void closeFlushes() throws DataAccessException {
+        var store = new FakeGameDAO();
+        var writer = WriteBehindGameDAO.start(store, NEVER, 100, 100);
+        writer.updateGame(version(1, "a"));
+        writer.updateGame(version(2, "b"));
+        writer.close();
+        Assertions.assertEquals(2, store.games.size());
+        Assertions.assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("A Failed Flush Keeps Games Buffered")
+    public void failedFlushKeepsDirty() throws DataAccessException {
+        var store = new FakeGameDAO();
+        try (var writer = WriteBehindGameDAO.start(store, NEVER, 100, 100)) {
+            writer.updateGame(version(1, "a"));
+            store.failing = true;
+            Assertions.assertThrows(DataAccessException.class, writer::flush);
+            Assertions.assertEquals(1, writer.getPendingCount());
+            Assertions.assertEquals("a", writer.getGame(1).gameName());
+
+            store.failing = false;
+            writer.flush();
+            Assertions.assertEquals(0, writer.getPendingCount());
+            Assertions.assertEquals("a", store.games.get(1).gameName());
+        }
+    }
+
+    @Test
+    @DisplayName("A Full Buffer Pushes Back on New Games")
+    public void fullBufferPushesBack() throws DataAccessException {
+        var store = new FakeGameDAO();
+        try (var writer = WriteBehindGameDAO.start(store, NEVER, 2, 2)) {
+            store.failing = true;
+            writer.updateGame(version(1, "a"));
+            writer.updateGame(version(2, "b"));
+            //Games already buffered can still be updated
+            writer.updateGame(version(1, "c"));
+            Assertions.assertThrows(DataAccessException.class, () -> writer.updateGame(version(3, "d")));
+            Assertions.assertEquals(2, writer.getPendingCount());
+
+            store.failing = false;
+            writer.updateGame(version(3, "d"));
+            Assertions.assertEquals("c", store.games.get(1).gameName());
+            Assertions.assertEquals("d", writer.getGame(3).gameName());
+        }
+    }
+
+    @Test
+    @DisplayName("An Update During a Write Is Kept Even if the Position Repeats")
+    public void repeatedPositionDuringWrite() throws DataAccessException, InvalidMoveException {
+        var game = new ChessGame();
+        var later = new ChessGame(game);
+        //Knights out and back reach the starting position again with four more moves
+        later.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        later.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        later.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        later.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        Assertions.assertEquals(game, later);
+
+        var writer = new WriteBehindGameDAO[1];
+        var store = new FakeGameDAO() {
+            @Override
+            public void updateGames(Collection<GameData> updated) throws DataAccessException {
+                super.updateGames(updated);
+                if (batches.size() == 1) {
+                    //Another request moves while the first write is in flight
+                    writer[0].updateGame(new GameData(1, "white", "black", "game", later));
+                }
+            }
+        };
+        try (var started = WriteBehindGameDAO.start(store, NEVER, 100, 100)) {
+            writer[0] = started;
+            started.updateGame(new GameData(1, "white", "black", "game", game));
+            started.flush();
+            Assertions.assertEquals(1, started.getPendingCount());
+
+            started.flush();
+            Assertions.assertEquals(4, store.games.get(1).game().getMoveHistory().size());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import spark.Spark;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHasherTests {
+    //Waits until the hasher reports the expected queue, since tasks start on another thread
+    private static void awaitQueue(PasswordHasher hasher, int queued, int running) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            var stats = hasher.getStats();
+            if (stats.queued() == queued && stats.running() == running) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        Assertions.fail("Hasher never reached " + queued + " queued and " + running + " running");
+    }
+
+    private static Thread blockOn(PasswordHasher hasher, CountDownLatch release) {
+        var thread = new Thread(() -> hasher.run(() -> release.await(5, TimeUnit.SECONDS)));
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    @DisplayName("Hash Matches Only Its Password")
+    public void hashAndMatch() {
+        try (var hasher = new PasswordHasher(1, 4)) {
+            String hash = hasher.hash("secret");
+            Assertions.assertTrue(hasher.matches("secret", hash));
+            Assertions.assertFalse(hasher.matches("guess", hash));
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed Hash Does Not Match")
+    public void malformedHash() {
+        try (var hasher = new PasswordHasher(1, 4)) {
+            Assertions.assertFalse(hasher.matches("secret", "not a bcrypt hash"));
+            Assertions.assertFalse(hasher.matches("secret", "$2a$10$tooShort"));
+        }
+    }
+
+    @Test
+    @DisplayName("Full Queue Turns Requests Away")
+    public void saturatedQueue() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        try (var hasher = new PasswordHasher(1, 1)) {
+            var running = blockOn(hasher, release);
+            awaitQueue(hasher, 0, 1);
+            var queued = blockOn(hasher, release);
+            awaitQueue(hasher, 1, 1);
+
+            var busy = Assertions.assertThrows(PasswordHasher.BusyException.class, () -> hasher.hash("secret"));
+            Assertions.assertTrue(busy.getRetryAfterSeconds() >= 1);
+
+            var stats = hasher.getStats();
+            Assertions.assertEquals(1, stats.queued());
+            Assertions.assertEquals(1, stats.running());
+            Assertions.assertEquals(1, stats.rejected());
+            Assertions.assertEquals(0, stats.completed());
+
+            release.countDown();
+            running.join();
+            queued.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Stats Report Hash Times")
+    public void stats() {
+        try (var hasher = new PasswordHasher(2, 4)) {
+            hasher.hash("first");
+            hasher.hash("second");
+            var stats = hasher.getStats();
+            Assertions.assertEquals(2, stats.completed());
+            Assertions.assertEquals(0, stats.rejected());
+            Assertions.assertEquals(0, stats.queued());
+            Assertions.assertTrue(stats.meanMillis() > 0);
+            Assertions.assertTrue(stats.maxMillis() >= stats.meanMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Busy Hasher Returns 503 With Retry-After")
+    public void busyResponse() throws Exception {
+        Spark.port(0);
+        Server.mapExceptions();
+        Spark.get("/busy", (req, res) -> {
+            throw new PasswordHasher.BusyException(3);
+        });
+        Spark.awaitInitialization();
+        try {
+            var connection = (HttpURLConnection) URI.create("http://localhost:" + Spark.port() + "/busy")
+                    .toURL().openConnection();
+            Assertions.assertEquals(503, connection.getResponseCode());
+            Assertions.assertEquals("3", connection.getHeaderField("Retry-After"));
+            try (var body = connection.getErrorStream()) {
+                Assertions.assertTrue(new String(body.readAllBytes()).contains("server busy"));
+            }
+        } finally {
+            Spark.stop();
+            Spark.awaitStop();
+        }
+    }
+}
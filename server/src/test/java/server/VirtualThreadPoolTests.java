@@ -0,0 +1,60 @@
+package server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class VirtualThreadPoolTests {
+    @Test
+    @DisplayName("Tasks Run on Virtual Threads Between Start and Stop")
+    public void lifecycle() throws Exception {
+        var pool = new VirtualThreadPool();
+        Assertions.assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> { }));
+
+        pool.start();
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(2);
+        var virtual = new AtomicBoolean(true);
+        Runnable task = () -> {
+            virtual.compareAndSet(true, Thread.currentThread().isVirtual());
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        pool.execute(task);
+        Assertions.assertTrue(pool.tryExecute(task));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(virtual.get());
+        Assertions.assertEquals(2, pool.getThreads());
+        Assertions.assertEquals(0, pool.getIdleThreads());
+        Assertions.assertFalse(pool.isLowOnThreads());
+
+        var joined = new CountDownLatch(1);
+        var joiner = new Thread(() -> {
+            try {
+                pool.join();
+                joined.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        joiner.start();
+        Assertions.assertFalse(joined.await(50, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        pool.stop();
+        Assertions.assertTrue(joined.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, pool.getThreads());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> { }));
+        Assertions.assertFalse(pool.tryExecute(() -> { }));
+        Assertions.assertEquals(0, pool.getThreads());
+    }
+}
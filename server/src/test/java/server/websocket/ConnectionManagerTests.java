@@ -0,0 +1,192 @@
+package server.websocket;
+
+import chess.ChessGame;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConnectionManagerTests {
+    private enum Behavior { DELIVER, CLOSED, WRITE_FAILS, THROWS }
+
+    //A session that records what it is sent, or is closed, or fails each send one of two ways
+    private static Session session(List<String> received, Behavior behavior) {
+        var remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString") && args.length == 2) {
+                        var callback = (WriteCallback) args[1];
+                        switch (behavior) {
+                            case THROWS -> throw new IllegalStateException("Blocking message pending");
+                            case WRITE_FAILS -> callback.writeFailed(new IOException("Broken pipe"));
+                            default -> {
+                                received.add((String) args[0]);
+                                callback.writeSuccess();
+                            }
+                        }
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> behavior != Behavior.CLOSED;
+                    case "getRemote" -> remote;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private static Session session(List<String> received) {
+        return session(received, Behavior.DELIVER);
+    }
+
+    @Test
+    @DisplayName("Broadcast Reaches Every Session but the Excluded One")
+    public void broadcastExcludes() {
+        var manager = new ConnectionManager();
+        List<String> mover = new CopyOnWriteArrayList<>();
+        List<String> opponent = new CopyOnWriteArrayList<>();
+        List<String> otherGame = new CopyOnWriteArrayList<>();
+        Session moverSession = session(mover);
+        manager.add(1, moverSession);
+        manager.add(1, session(opponent));
+        manager.add(2, session(otherGame));
+
+        manager.broadcast(1, "{}", moverSession);
+        Assertions.assertEquals(List.of(), mover);
+        Assertions.assertEquals(List.of("{}"), opponent);
+        Assertions.assertEquals(List.of(), otherGame);
+
+        manager.broadcast(1, "[]", null);
+        Assertions.assertEquals(List.of("[]"), mover);
+        Assertions.assertEquals(List.of("{}", "[]"), opponent);
+        Assertions.assertEquals(3, manager.getSendCount());
+    }
+
+    @Test
+    @DisplayName("Closed Sessions Are Pruned Without a Send")
+    public void closedSessionsPruned() {
+        var manager = new ConnectionManager();
+        List<String> open = new CopyOnWriteArrayList<>();
+        manager.add(1, session(open));
+        manager.add(1, session(new ArrayList<>(), Behavior.CLOSED));
+
+        manager.broadcast(1, "{}", null);
+        Assertions.assertEquals(List.of("{}"), open);
+        Assertions.assertEquals(1, manager.getSendCount());
+        Assertions.assertEquals(0, manager.getFailedSendCount());
+        Assertions.assertEquals(1, manager.getPrunedCount());
+        Assertions.assertEquals(1, manager.getSessionCount(1));
+    }
+
+    @Test
+    @DisplayName("Sessions Whose Write Fails Are Pruned")
+    public void failedWritesPruned() {
+        var manager = new ConnectionManager();
+        List<String> open = new CopyOnWriteArrayList<>();
+        manager.add(1, session(open));
+        manager.add(1, session(new ArrayList<>(), Behavior.WRITE_FAILS));
+
+        manager.broadcast(1, "{}", null);
+        Assertions.assertEquals(List.of("{}"), open);
+        Assertions.assertEquals(2, manager.getSendCount());
+        Assertions.assertEquals(1, manager.getFailedSendCount());
+        Assertions.assertEquals(1, manager.getPrunedCount());
+        Assertions.assertEquals(1, manager.getSessionCount(1));
+    }
+
+    @Test
+    @DisplayName("A Send That Throws Is Pruned Without Stopping the Broadcast")
+    public void throwingSendIsPruned() {
+        var manager = new ConnectionManager();
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> last = new CopyOnWriteArrayList<>();
+        manager.add(1, session(first));
+        manager.add(1, session(new CopyOnWriteArrayList<>(), Behavior.THROWS));
+        manager.add(1, session(last));
+
+        manager.broadcast(1, "{}", null);
+
+        Assertions.assertEquals(List.of("{}"), first);
+        Assertions.assertEquals(List.of("{}"), last);
+        Assertions.assertEquals(3, manager.getSendCount());
+        Assertions.assertEquals(1, manager.getFailedSendCount());
+        Assertions.assertEquals(1, manager.getPrunedCount());
+        Assertions.assertEquals(2, manager.getSessionCount(1));
+    }
+
+    @Test
+    @DisplayName("Game Is Dropped When Its Last Session Leaves")
+    public void lastSessionRemovesGame() {
+        var manager = new ConnectionManager();
+        Session first = session(new ArrayList<>());
+        Session second = session(new ArrayList<>());
+        manager.add(1, first);
+        manager.add(1, second);
+        manager.getLoadGamePayloads().get(1, new ChessGame());
+
+        Assertions.assertTrue(manager.remove(1, first));
+        Assertions.assertFalse(manager.remove(1, first));
+        Assertions.assertEquals(1, manager.getSessionCount(1));
+        Assertions.assertTrue(manager.remove(1, second));
+        Assertions.assertEquals(0, manager.getSessionCount(1));
+        Assertions.assertFalse(manager.remove(1, second));
+
+        //The cached payload went with the game, so the next request serializes again
+        manager.getLoadGamePayloads().get(1, new ChessGame());
+        Assertions.assertEquals(2, manager.getLoadGamePayloads().getMissCount());
+        //Broadcasting to a game no one is in does nothing
+        manager.broadcast(1, "{}", null);
+        Assertions.assertEquals(0, manager.getSendCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent Joins and Leaves Keep Every Session That Stays")
+    public void concurrentAddRemove() throws Exception {
+        var manager = new ConnectionManager();
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        List<Future<Session>> staying = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                staying.add(executor.submit(() -> {
+                    start.await();
+                    //Each thread churns sessions through game 1 and leaves one behind
+                    for (int i = 0; i < perThread; i++) {
+                        Session passing = session(new ArrayList<>());
+                        manager.add(1, passing);
+                        Assertions.assertTrue(manager.remove(1, passing));
+                    }
+                    Session stays = session(new ArrayList<>());
+                    manager.add(1, stays);
+                    return stays;
+                }));
+            }
+            start.countDown();
+            for (Future<Session> future : staying) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(threads, manager.getSessionCount(1));
+        for (Future<Session> future : staying) {
+            Assertions.assertTrue(manager.remove(1, future.get()));
+        }
+        Assertions.assertEquals(0, manager.getSessionCount(1));
+    }
+}
@@ -0,0 +1,79 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoadGamePayloadsTests {
+    private static void move(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null));
+    }
+
+    @Test
+    @DisplayName("Unchanged Game Reuses Its Payload")
+    public void hit() {
+        var payloads = new LoadGamePayloads();
+        var game = new ChessGame();
+        String first = payloads.get(1, game);
+        Assertions.assertSame(first, payloads.get(1, game));
+        Assertions.assertSame(first, payloads.get(1, new ChessGame(game)));
+        Assertions.assertEquals(2, payloads.getHitCount());
+        Assertions.assertEquals(1, payloads.getMissCount());
+    }
+
+    @Test
+    @DisplayName("A Move Produces a New Payload")
+    public void missAfterMove() throws InvalidMoveException {
+        var payloads = new LoadGamePayloads();
+        var game = new ChessGame();
+        String before = payloads.get(1, game);
+        move(game, 2, 5, 4, 5);
+        String after = payloads.get(1, game);
+        Assertions.assertNotEquals(before, after);
+        Assertions.assertEquals(2, payloads.getMissCount());
+        //Games are cached separately
+        payloads.get(2, new ChessGame());
+        Assertions.assertEquals(3, payloads.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Same Position by Different Moves Produces a New Payload")
+    public void sameBoardDifferentHistory() throws InvalidMoveException {
+        var payloads = new LoadGamePayloads();
+        var kingside = new ChessGame();
+        move(kingside, 1, 7, 3, 6);
+        move(kingside, 8, 7, 6, 6);
+        move(kingside, 3, 6, 1, 7);
+        move(kingside, 6, 6, 8, 7);
+        var queenside = new ChessGame();
+        move(queenside, 1, 2, 3, 3);
+        move(queenside, 8, 2, 6, 3);
+        move(queenside, 3, 3, 1, 2);
+        move(queenside, 6, 3, 8, 2);
+        Assertions.assertEquals(kingside.getPositionKey(), queenside.getPositionKey());
+
+        String first = payloads.get(1, kingside);
+        String second = payloads.get(1, queenside);
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(2, payloads.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Removed Payload Is Rebuilt")
+    public void remove() {
+        var payloads = new LoadGamePayloads();
+        var game = new ChessGame();
+        String first = payloads.get(1, game);
+        payloads.remove(1);
+        String second = payloads.get(1, game);
+        Assertions.assertEquals(first, second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, payloads.getMissCount());
+        Assertions.assertEquals(0, payloads.getHitCount());
+    }
+}
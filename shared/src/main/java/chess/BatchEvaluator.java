@@ -0,0 +1,57 @@
+package chess;
+
+/**
+ * Evaluates many positions at once, for batch analysis jobs
+ * <p>
+ * {@link #create()} picks an implementation that uses the incubating Vector API (SIMD)
+ * when the JVM was started with {@code --add-modules jdk.incubator.vector}, and a plain
+ * scalar implementation otherwise. Both give identical results.
+ */
+public interface BatchEvaluator {
+    /**
+     * Centipawn value of each piece, indexed by {@link ChessPiece.PieceType} ordinal
+     */
+    int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    /**
+     * Computes the material balance of every position in a batch
+     *
+     * @param batch  the positions
+     * @param scores receives white's material minus black's, in centipawns, one per position
+     */
+    void material(BitboardBatch batch, int[] scores);
+
+    /**
+     * Computes every square one side attacks in each position of a batch
+     *
+     * @param batch the positions
+     * @param side  the attacking side
+     * @param out   receives the attacked squares as a bitboard, one per position
+     */
+    void attacks(BitboardBatch batch, ChessGame.TeamColor side, long[] out);
+
+    /**
+     * @return True if this evaluator uses SIMD instructions
+     */
+    boolean isVectorized();
+
+    /**
+     * Creates the fastest evaluator this JVM supports. Setting the system property
+     * {@code chess.vector=false} forces the scalar implementation.
+     *
+     * @return the evaluator
+     */
+    static BatchEvaluator create() {
+        if (!"false".equals(System.getProperty("chess.vector"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                //Loaded by name so this interface still links when the module is missing
+                return (BatchEvaluator) Class.forName("chess.VectorBatchEvaluator")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                //Fall back to scalar code
+            }
+        }
+        return new ScalarBatchEvaluator();
+    }
+}
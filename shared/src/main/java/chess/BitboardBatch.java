@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Many positions stored as bitboards in parallel arrays, for evaluating them in bulk
+ * <p>
+ * For each of the 12 kinds of piece there is one long array, and element i of that array
+ * holds the squares (bit 0 = a1, bit 63 = h8) where that piece stands in position i.
+ * Keeping each kind of piece contiguous across positions lets batch evaluators work on
+ * many positions per instruction.
+ */
+public class BitboardBatch {
+    private final long[][] pieces = new long[12][];
+    private int size;
+
+    /**
+     * @param capacity how many positions the batch can hold
+     */
+    public BitboardBatch(int capacity) {
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = new long[capacity];
+        }
+    }
+
+    /**
+     * Adds a position to the batch
+     *
+     * @param board the position to add
+     * @return the index of the position in the batch
+     */
+    public int add(ChessBoard board) {
+        if (size == capacity()) {
+            throw new IllegalStateException("Batch is full");
+        }
+        for (int square = 0; square < 64; square++) {
+            int code = board.getCode(square);
+            if (code != ChessPiece.EMPTY) {
+                pieces[index(code)][size] |= 1L << square;
+            }
+        }
+        return size++;
+    }
+
+    /**
+     * @return the squares holding the given kind of piece, one long per position. Only the
+     * first {@link #size()} elements are in use.
+     */
+    public long[] pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[(color == ChessGame.TeamColor.BLACK ? 6 : 0) + type.ordinal()];
+    }
+
+    long[] pieces(int index) {
+        return pieces[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return pieces[0].length;
+    }
+
+    /**
+     * Removes every position so the batch can be refilled
+     */
+    public void clear() {
+        for (long[] boards : pieces) {
+            Arrays.fill(boards, 0, size, 0);
+        }
+        size = 0;
+    }
+
+    //Array index for a compact piece code: white pieces 0-5, black pieces 6-11, by type
+    private static int index(int code) {
+        int type = (code & ~ChessPiece.BLACK_BIT) - 1;
+        return (code & ChessPiece.BLACK_BIT) != 0 ? 6 + type : type;
+    }
+}
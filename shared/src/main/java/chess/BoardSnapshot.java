@@ -0,0 +1,110 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable copy of a game's position that any thread may read while the owning thread
+ * keeps making moves on the live game
+ * <p>
+ * The position is kept as 64 compact piece codes, the same layout ChessBoard uses, so
+ * taking a snapshot is a single 64 byte array copy. Snapshots must be taken by the thread
+ * that owns the game (or while holding whatever lock guards it); after that they can be
+ * shared freely without locking.
+ */
+public final class BoardSnapshot {
+    private final byte[] squares;
+    private final ChessGame.TeamColor teamTurn;
+    private final int castlingRights;
+    private final ChessPosition enPassantTarget;
+    private final int ply;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BoardSnapshot that = (BoardSnapshot) o;
+        return castlingRights == that.castlingRights && ply == that.ply && Arrays.equals(squares, that.squares)
+                && teamTurn == that.teamTurn && Objects.equals(enPassantTarget, that.enPassantTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(squares), teamTurn, castlingRights, enPassantTarget, ply);
+    }
+
+    BoardSnapshot(byte[] squares, ChessGame.TeamColor teamTurn, int castlingRights,
+                  ChessPosition enPassantTarget, int ply) {
+        this.squares = squares;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantTarget = enPassantTarget;
+        this.ply = ply;
+    }
+
+    /**
+     * Gets a chess piece in the snapshot
+     *
+     * @param position The position to get the piece from
+     * @return Either the piece at the position, or null if no piece is at that position
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return ChessPiece.fromCode(squares[PackedMove.index(position)]);
+    }
+
+    /**
+     * @return Which team's turn it was when the snapshot was taken
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return number of moves made in the game when the snapshot was taken
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @return a new, mutable board holding the snapshot's pieces
+     */
+    public ChessBoard toBoard() {
+        return new ChessBoard(squares);
+    }
+
+    /**
+     * @return a new game in the snapshot's position, with the same turn, castling and en
+     * passant state but no move history
+     */
+    public ChessGame toGame() {
+        ChessGame game = new ChessGame();
+        game.restore(this);
+        return game;
+    }
+
+    /**
+     * @param history the moves played to reach this position, oldest first
+     * @return a new game in the snapshot's position with the given move history
+     */
+    public ChessGame toGame(MoveList history) {
+        if (history.size() != ply) {
+            throw new IllegalArgumentException("Snapshot was taken after " + ply + " moves, not " + history.size());
+        }
+        ChessGame game = new ChessGame();
+        game.restore(this, history);
+        return game;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    ChessPosition getEnPassantTarget() {
+        return enPassantTarget;
+    }
+
+    byte getCode(int index) {
+        return squares[index];
+    }
+}
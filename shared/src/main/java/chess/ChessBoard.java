@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -10,25 +9,71 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
-    private final ChessPiece[][] squares = new ChessPiece[8][8];
+    //Compact piece codes (see ChessPiece.toCode) indexed by (row - 1) * 8 + (column - 1)
+    private final byte[] squares = new byte[64];
+    //Zobrist key of the pieces, kept up to date as squares change
+    private long pieceKey;
+    //Zobrist key of the pawns alone, so pawn structure work can be cached across positions
+    private long pawnKey;
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(squares, that.squares);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Arrays.hashCode(squares);
     }
 
     public ChessBoard() {
         
     }
 
+    /**
+     * Creates a copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.squares, 0, this.squares, 0, 64);
+        this.pieceKey = other.pieceKey;
+        this.pawnKey = other.pawnKey;
+    }
+
+    /**
+     * Creates a board from 64 compact piece codes, a1 first
+     */
+    ChessBoard(byte[] codes) {
+        copyFrom(codes, 0);
+    }
+
+    /**
+     * Replaces every square with 64 compact piece codes read from an array
+     *
+     * @param codes  array holding the codes
+     * @param offset index of the code for a1
+     */
+    void copyFrom(byte[] codes, int offset) {
+        System.arraycopy(codes, offset, this.squares, 0, 64);
+        pieceKey = 0;
+        pawnKey = 0;
+        for (int i = 0; i < 64; i++) {
+            pieceKey ^= Zobrist.PIECES[squares[i]][i];
+            pawnKey ^= Zobrist.PAWNS[squares[i]][i];
+        }
+    }
+
+    /**
+     * Writes the board's 64 compact piece codes into an array, a1 first
+     */
+    void copyTo(byte[] codes, int offset) {
+        System.arraycopy(this.squares, 0, codes, offset, 64);
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -36,7 +81,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setCode(index(position), ChessPiece.toCode(piece));
     }
 
     /**
@@ -47,7 +92,58 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        return ChessPiece.fromCode(squares[index(position)]);
+    }
+
+    /**
+     * @return the board's pieces as 64 compact piece codes, a1 first
+     */
+    byte[] toCodes() {
+        return squares.clone();
+    }
+
+    /**
+     * @return the compact code of the piece on a square index (0-63)
+     */
+    byte getCode(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Puts a compact piece code on a square index (0-63)
+     */
+    void setCode(int index, byte code) {
+        pieceKey ^= Zobrist.PIECES[squares[index]][index] ^ Zobrist.PIECES[code][index];
+        pawnKey ^= Zobrist.PAWNS[squares[index]][index] ^ Zobrist.PAWNS[code][index];
+        squares[index] = code;
+    }
+
+    /**
+     * @return Zobrist hash of the pieces on the board, not including turn or castling state
+     */
+    long getPieceKey() {
+        return pieceKey;
+    }
+
+    /**
+     * @return Zobrist hash of the pawns on the board, unchanged by moves of other pieces
+     */
+    long getPawnKey() {
+        return pawnKey;
+    }
+
+    private static int index(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + (position.getColumn() - 1);
+    }
+
+    /**
+     * Takes an immutable copy of the pieces on this board. The snapshot has white to move
+     * and no castling or en passant state; use {@link ChessGame#snapshot()} to keep those.
+     *
+     * @return the snapshot
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(toCodes(), ChessGame.TeamColor.WHITE, 0, null, 0);
     }
 
     /**
@@ -55,11 +151,9 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        for (int x = 0; x < 8; x++){
-            for (int y = 0; y < 8; y++){
-                this.squares[x][y] = null;
-            }
-        }
+        Arrays.fill(this.squares, ChessPiece.EMPTY);
+        this.pieceKey = 0;
+        this.pawnKey = 0;
 
         ChessPiece.PieceType[] typeArray = {ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
         int x = 1;
@@ -1,6 +1,8 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -9,16 +11,62 @@ import java.util.Collection;
  * signature of the existing methods.
  */
 public class ChessGame {
+    static final int WHITE_KING_SIDE = 1;
+    static final int WHITE_QUEEN_SIDE = 2;
+    static final int BLACK_KING_SIDE = 4;
+    static final int BLACK_QUEEN_SIDE = 8;
+
+    private ChessBoard board;
+    private TeamColor teamTurn = TeamColor.WHITE;
+    //Bit set of the castles still available, see the *_SIDE constants
+    private int castlingRights;
+    //Square a pawn may move to when capturing en passant, or null
+    private ChessPosition enPassantTarget;
+    private final MoveList moveHistory = new MoveList();
+    //Optional, shared between games, so not part of the game's state
+    private transient MoveCache moveCache;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChessGame chessGame = (ChessGame) o;
+        return castlingRights == chessGame.castlingRights && Objects.equals(board, chessGame.board)
+                && teamTurn == chessGame.teamTurn && Objects.equals(enPassantTarget, chessGame.enPassantTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(board, teamTurn, castlingRights, enPassantTarget);
+    }
 
     public ChessGame() {
+        ChessBoard startBoard = new ChessBoard();
+        startBoard.resetBoard();
+        setBoard(startBoard);
+    }
 
+    /**
+     * Creates an independent copy of another game, including its move history and move cache
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.board = new ChessBoard(other.board);
+        this.teamTurn = other.teamTurn;
+        this.castlingRights = other.castlingRights;
+        this.enPassantTarget = other.enPassantTarget;
+        for (int i = 0; i < other.moveHistory.size(); i++) {
+            this.moveHistory.add(other.moveHistory.get(i));
+        }
+        this.moveCache = other.moveCache;
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
@@ -27,7 +75,7 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        this.teamTurn = team;
     }
 
     /**
@@ -46,7 +94,160 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        RulesEvents.ValidMoves event = new RulesEvents.ValidMoves();
+        event.begin();
+        Collection<ChessMove> moves = findValidMoves(startPosition);
+        event.end();
+        if (event.shouldCommit()) {
+            event.positionKey = getPositionKey();
+            event.square = PackedMove.index(startPosition);
+            event.moveCount = moves == null ? 0 : moves.size();
+            event.commit();
+        }
+        return moves;
+    }
+
+    private Collection<ChessMove> findValidMoves(ChessPosition startPosition) {
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
+        }
+        if (moveCache == null) {
+            return generateValidMoves(piece, startPosition);
+        }
+
+        long positionKey = getPositionKey();
+        int square = PackedMove.index(startPosition);
+        short[] packed = moveCache.get(positionKey, square);
+        if (packed == null) {
+            ArrayList<ChessMove> moves = generateValidMoves(piece, startPosition);
+            packed = new short[moves.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = PackedMove.encode(moves.get(i));
+            }
+            moveCache.put(positionKey, square, packed);
+            return moves;
+        }
+        ArrayList<ChessMove> moves = new ArrayList<>(packed.length);
+        for (short move : packed) {
+            moves.add(PackedMove.decode(move));
+        }
+        return moves;
+    }
+
+    private ArrayList<ChessMove> generateValidMoves(ChessPiece piece, ChessPosition startPosition) {
+        ArrayList<ChessMove> candidates = piece.pieceMoves(board, startPosition);
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            addCastlingMoves(piece.getTeamColor(), startPosition, candidates);
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            addEnPassantMoves(piece.getTeamColor(), startPosition, candidates);
+        }
+
+        ArrayList<ChessMove> moves = new ArrayList<>();
+        for (ChessMove move : candidates) {
+            if (isLegalCandidate(move, piece.getTeamColor())) {
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Gets every valid move for one team in a single pass over the board, sharing the
+     * attack, pin and check information between all of the team's pieces
+     *
+     * @param teamColor the team to get valid moves for
+     * @return the moves, packed 2 bytes each (see {@link PackedMove})
+     */
+    public MoveList allLegalMoves(TeamColor teamColor) {
+        return LegalMoveGenerator.generate(board, teamColor, castlingRights, enPassantTarget);
+    }
+
+    /**
+     * Gets only the legal moves that give check, worked out from the attack and pin
+     * information without trying each move on a copy of the game
+     *
+     * @param teamColor the team to get checking moves for
+     * @return the moves, packed 2 bytes each (see {@link PackedMove})
+     */
+    MoveList checkingMoves(TeamColor teamColor) {
+        return LegalMoveGenerator.generateChecks(board, teamColor, castlingRights, enPassantTarget);
+    }
+
+    /**
+     * Checks one move without generating the rest of the piece's moves. The move's shape,
+     * the squares it passes over, castling and en passant rules and the safety of the
+     * mover's king afterwards are all tested directly. Like {@link #validMoves}, this does
+     * not look at whose turn it is.
+     *
+     * @param move the move to check
+     * @return True if the move is one of {@code validMoves(move.getStartPosition())}
+     */
+    public boolean isLegal(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!isOnBoard(start.getRow(), start.getColumn()) || !isOnBoard(end.getRow(), end.getColumn())
+                || start.equals(end)) {
+            return false;
+        }
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) {
+            return false;
+        }
+        TeamColor color = piece.getTeamColor();
+        ChessPiece target = board.getPiece(end);
+        if (target != null && target.getTeamColor() == color) {
+            return false;
+        }
+
+        int rows = end.getRow() - start.getRow();
+        int cols = end.getColumn() - start.getColumn();
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        boolean promotes = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                && end.getRow() == (color == TeamColor.WHITE ? 8 : 1);
+        if (promotes != (promotion != null) || promotion == ChessPiece.PieceType.KING
+                || promotion == ChessPiece.PieceType.PAWN) {
+            return false;
+        }
+
+        switch (piece.getPieceType()) {
+            case KING -> {
+                if (rows == 0 && Math.abs(cols) == 2) {
+                    ArrayList<ChessMove> castles = new ArrayList<>(2);
+                    addCastlingMoves(color, start, castles);
+                    return castles.contains(move) && isLegalCandidate(move, color);
+                }
+                if (Math.abs(rows) > 1 || Math.abs(cols) > 1) {
+                    return false;
+                }
+            }
+            case KNIGHT -> {
+                if (Math.abs(rows * cols) != 2) {
+                    return false;
+                }
+            }
+            case BISHOP -> {
+                if (Math.abs(rows) != Math.abs(cols) || !isPathClear(start, end)) {
+                    return false;
+                }
+            }
+            case ROOK -> {
+                if ((rows != 0 && cols != 0) || !isPathClear(start, end)) {
+                    return false;
+                }
+            }
+            case QUEEN -> {
+                if ((rows != 0 && cols != 0 && Math.abs(rows) != Math.abs(cols)) || !isPathClear(start, end)) {
+                    return false;
+                }
+            }
+            case PAWN -> {
+                if (!isPawnMove(color, start, end, target)) {
+                    return false;
+                }
+            }
+        }
+        return isLegalCandidate(move, color);
     }
 
     /**
@@ -56,7 +257,63 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        RulesEvents.MakeMove event = new RulesEvents.MakeMove();
+        long positionKey = event.isEnabled() ? getPositionKey() : 0;
+        int moveCount = moveHistory.size();
+        event.begin();
+        try {
+            playMove(move);
+            event.made = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.positionKey = positionKey;
+                //Rejected moves may not fit the packed format, for example promoting to a king
+                event.move = event.made ? PackedMove.toString(PackedMove.encode(move)) : null;
+                event.moveCount = moveCount;
+                event.commit();
+            }
+        }
+    }
+
+    private void playMove(ChessMove move) throws InvalidMoveException {
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at " + move.getStartPosition());
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+        if (!isLegal(move)) {
+            throw new InvalidMoveException("Illegal move");
+        }
+        applyLegal(move, piece);
+    }
+
+    /**
+     * Returns a copy of this game, without its move history, with a move made that is
+     * already known to be legal for the side to move. The move is not checked again.
+     */
+    ChessGame afterLegalMove(short move) {
+        ChessGame next = snapshot().toGame();
+        ChessMove decoded = PackedMove.decode(move);
+        next.applyLegal(decoded, next.board.getPiece(decoded.getStartPosition()));
+        return next;
+    }
+
+    private void applyLegal(ChessMove move, ChessPiece piece) {
+        ChessPosition doubleStepTarget = null;
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN
+                && Math.abs(move.getEndPosition().getRow() - move.getStartPosition().getRow()) == 2) {
+            int skippedRow = (move.getStartPosition().getRow() + move.getEndPosition().getRow()) / 2;
+            doubleStepTarget = new ChessPosition(skippedRow, move.getStartPosition().getColumn());
+        }
+
+        applyMove(board, move);
+        updateCastlingRights(move);
+        enPassantTarget = doubleStepTarget;
+        moveHistory.add(move);
+        teamTurn = opponent(teamTurn);
     }
 
     /**
@@ -66,7 +323,7 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return isInCheck(board, teamColor);
     }
 
     /**
@@ -76,7 +333,18 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        RulesEvents.Checkmate event = new RulesEvents.Checkmate();
+        event.begin();
+        boolean checkmate = isInCheck(teamColor) && !hasValidMove(teamColor);
+        event.end();
+        if (event.shouldCommit()) {
+            event.positionKey = getPositionKey();
+            event.team = teamColor.name();
+            event.moveCount = moveHistory.size();
+            event.checkmate = checkmate;
+            event.commit();
+        }
+        return checkmate;
     }
 
     /**
@@ -87,7 +355,7 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !isInCheck(teamColor) && !hasValidMove(teamColor);
     }
 
     /**
@@ -96,7 +364,20 @@ public class ChessGame {
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        this.enPassantTarget = null;
+        this.moveHistory.clear();
+
+        //Castling is available wherever the king and rook still stand on their home squares
+        castlingRights = 0;
+        if (isHomePiece(1, 5, TeamColor.WHITE, ChessPiece.PieceType.KING)) {
+            if (isHomePiece(1, 8, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) castlingRights |= WHITE_KING_SIDE;
+            if (isHomePiece(1, 1, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) castlingRights |= WHITE_QUEEN_SIDE;
+        }
+        if (isHomePiece(8, 5, TeamColor.BLACK, ChessPiece.PieceType.KING)) {
+            if (isHomePiece(8, 8, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) castlingRights |= BLACK_KING_SIDE;
+            if (isHomePiece(8, 1, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) castlingRights |= BLACK_QUEEN_SIDE;
+        }
     }
 
     /**
@@ -105,6 +386,355 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
+    }
+
+    /**
+     * @return every move made since the board was last set, in order
+     */
+    public MoveList getMoveHistory() {
+        return moveHistory;
+    }
+
+    /**
+     * Sets a cache to consult before generating valid moves, or null to always generate them
+     *
+     * @param moveCache the cache to use, which may be shared with other games
+     */
+    public void setMoveCache(MoveCache moveCache) {
+        this.moveCache = moveCache;
+    }
+
+    /**
+     * Gets a Zobrist hash of the whole position: pieces, side to move, castling rights and
+     * en passant square. Equal positions always have equal keys.
+     *
+     * @return the position key
+     */
+    public long getPositionKey() {
+        long key = board.getPieceKey() ^ Zobrist.CASTLING[castlingRights];
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        if (enPassantTarget != null) {
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantTarget.getColumn() - 1];
+        }
+        return key;
+    }
+
+    /**
+     * Takes an immutable copy of the current position that other threads can read while
+     * this game keeps changing
+     *
+     * @return the snapshot
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(board.toCodes(), teamTurn, castlingRights, enPassantTarget, moveHistory.size());
+    }
+
+    /**
+     * Replaces this game's position with the one in a snapshot, clearing the move history
+     */
+    void restore(BoardSnapshot snapshot) {
+        this.board = snapshot.toBoard();
+        this.teamTurn = snapshot.getTeamTurn();
+        this.castlingRights = snapshot.getCastlingRights();
+        this.enPassantTarget = snapshot.getEnPassantTarget();
+        this.moveHistory.clear();
+    }
+
+    /**
+     * Replaces this game's position with the one in a snapshot and its move history with the
+     * moves that led there
+     */
+    void restore(BoardSnapshot snapshot, MoveList history) {
+        restore(snapshot);
+        for (int i = 0; i < history.size(); i++) {
+            this.moveHistory.add(history.get(i));
+        }
+    }
+
+    /**
+     * Replaces this game's position in place, reusing its board, and clears the move history
+     *
+     * @param codes           array holding 64 compact piece codes
+     * @param offset          index of the code for a1
+     * @param teamTurn        the team to move
+     * @param castlingRights  castles still available
+     * @param enPassantTarget en passant square, or null
+     */
+    void load(byte[] codes, int offset, TeamColor teamTurn, int castlingRights, ChessPosition enPassantTarget) {
+        this.board.copyFrom(codes, offset);
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantTarget = enPassantTarget;
+        this.moveHistory.clear();
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    ChessPosition getEnPassantTarget() {
+        return enPassantTarget;
+    }
+
+    /**
+     * @return the team that plays against the given team
+     */
+    public static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    //Stops at the first legal move found instead of generating every move of every piece
+    private boolean hasValidMove(TeamColor teamColor) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece == null || piece.getTeamColor() != teamColor) {
+                    continue;
+                }
+                if (piece.pieceMoveStream(board, position).anyMatch(move -> isLegalCandidate(move, teamColor))) {
+                    return true;
+                }
+                //Castling is never the only legal move, but en passant can be
+                if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+                    ArrayList<ChessMove> enPassant = new ArrayList<>();
+                    addEnPassantMoves(teamColor, position, enPassant);
+                    for (ChessMove move : enPassant) {
+                        if (isLegalCandidate(move, teamColor)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    //Checks that a candidate move does not leave the mover's king in check
+    private boolean isLegalCandidate(ChessMove move, TeamColor teamColor) {
+        ChessBoard testBoard = new ChessBoard(board);
+        applyMove(testBoard, move);
+        return !isInCheck(testBoard, teamColor);
+    }
+
+    private boolean isHomePiece(int row, int col, TeamColor color, ChessPiece.PieceType type) {
+        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+    }
+
+    private void addCastlingMoves(TeamColor color, ChessPosition kingPosition, Collection<ChessMove> moves) {
+        int row = color == TeamColor.WHITE ? 1 : 8;
+        if (kingPosition.getRow() != row || kingPosition.getColumn() != 5 || isInCheck(color)) {
+            return;
+        }
+        int kingSide = color == TeamColor.WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        int queenSide = color == TeamColor.WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        TeamColor enemy = opponent(color);
+
+        if ((castlingRights & kingSide) != 0 && isHomePiece(row, 8, color, ChessPiece.PieceType.ROOK)
+                && isEmpty(row, 6) && isEmpty(row, 7)
+                && !isSquareAttacked(board, new ChessPosition(row, 6), enemy)) {
+            moves.add(new ChessMove(kingPosition, new ChessPosition(row, 7), null));
+        }
+        if ((castlingRights & queenSide) != 0 && isHomePiece(row, 1, color, ChessPiece.PieceType.ROOK)
+                && isEmpty(row, 4) && isEmpty(row, 3) && isEmpty(row, 2)
+                && !isSquareAttacked(board, new ChessPosition(row, 4), enemy)) {
+            moves.add(new ChessMove(kingPosition, new ChessPosition(row, 3), null));
+        }
+    }
+
+    private void addEnPassantMoves(TeamColor color, ChessPosition pawnPosition, Collection<ChessMove> moves) {
+        if (enPassantTarget == null) {
+            return;
+        }
+        int direction = color == TeamColor.WHITE ? 1 : -1;
+        if (enPassantTarget.getRow() == pawnPosition.getRow() + direction
+                && Math.abs(enPassantTarget.getColumn() - pawnPosition.getColumn()) == 1
+                && isPieceAt(board, pawnPosition.getRow(), enPassantTarget.getColumn(), opponent(color),
+                ChessPiece.PieceType.PAWN)) {
+            moves.add(new ChessMove(pawnPosition, enPassantTarget, null));
+        }
+    }
+
+    //Pushes must land on empty squares, captures on an enemy piece or the en passant square
+    private boolean isPawnMove(TeamColor color, ChessPosition start, ChessPosition end, ChessPiece target) {
+        int direction = color == TeamColor.WHITE ? 1 : -1;
+        int rows = end.getRow() - start.getRow();
+        int cols = end.getColumn() - start.getColumn();
+        if (cols == 0) {
+            if (target != null) {
+                return false;
+            }
+            if (rows == 2 * direction) {
+                return start.getRow() == (color == TeamColor.WHITE ? 2 : 7)
+                        && isEmpty(start.getRow() + direction, start.getColumn());
+            }
+            return rows == direction;
+        }
+        if (Math.abs(cols) != 1 || rows != direction) {
+            return false;
+        }
+        return target != null || (end.equals(enPassantTarget)
+                && isPieceAt(board, start.getRow(), end.getColumn(), opponent(color), ChessPiece.PieceType.PAWN));
+    }
+
+    //Checks the squares strictly between two positions on the same line
+    private boolean isPathClear(ChessPosition start, ChessPosition end) {
+        int rowStep = Integer.signum(end.getRow() - start.getRow());
+        int colStep = Integer.signum(end.getColumn() - start.getColumn());
+        int row = start.getRow() + rowStep;
+        int col = start.getColumn() + colStep;
+        while (row != end.getRow() || col != end.getColumn()) {
+            if (board.getCode((row - 1) * 8 + col - 1) != ChessPiece.EMPTY) {
+                return false;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+        return true;
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    private boolean isEmpty(int row, int col) {
+        return board.getPiece(new ChessPosition(row, col)) == null;
+    }
+
+    private void updateCastlingRights(ChessMove move) {
+        castlingRights &= ~rightsTouchedBy(move.getStartPosition());
+        castlingRights &= ~rightsTouchedBy(move.getEndPosition());
+    }
+
+    //Castling rights lost when a piece moves from or onto the given square
+    private static int rightsTouchedBy(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row == 1) {
+            if (col == 5) return WHITE_KING_SIDE | WHITE_QUEEN_SIDE;
+            if (col == 8) return WHITE_KING_SIDE;
+            if (col == 1) return WHITE_QUEEN_SIDE;
+        } else if (row == 8) {
+            if (col == 5) return BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+            if (col == 8) return BLACK_KING_SIDE;
+            if (col == 1) return BLACK_QUEEN_SIDE;
+        }
+        return 0;
+    }
+
+    /**
+     * Moves pieces on a board for a move that is already known to be legal, including the
+     * rook of a castle, the captured pawn of an en passant and promotions
+     */
+    private static void applyMove(ChessBoard board, ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(end.getColumn() - start.getColumn()) == 2) {
+            //Castling, move the rook to the other side of the king
+            int rookFrom = end.getColumn() == 7 ? 8 : 1;
+            int rookTo = end.getColumn() == 7 ? 6 : 4;
+            ChessPosition rookStart = new ChessPosition(start.getRow(), rookFrom);
+            board.addPiece(new ChessPosition(start.getRow(), rookTo), board.getPiece(rookStart));
+            board.addPiece(rookStart, null);
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN && start.getColumn() != end.getColumn()
+                && board.getPiece(end) == null) {
+            //En passant, the captured pawn sits beside the start square
+            board.addPiece(new ChessPosition(start.getRow(), end.getColumn()), null);
+        }
+
+        if (move.getPromotionPiece() != null) {
+            piece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
+        }
+        board.addPiece(end, piece);
+        board.addPiece(start, null);
+    }
+
+    private static boolean isInCheck(ChessBoard board, TeamColor teamColor) {
+        ChessPosition king = findKing(board, teamColor);
+        return king != null && isSquareAttacked(board, king, opponent(teamColor));
+    }
+
+    private static ChessPosition findKing(ChessBoard board, TeamColor teamColor) {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null && piece.getTeamColor() == teamColor
+                        && piece.getPieceType() == ChessPiece.PieceType.KING) {
+                    return position;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines if any piece of the attacking team could capture on the given square,
+     * looking outwards from the square for each kind of attacker
+     */
+    static boolean isSquareAttacked(ChessBoard board, ChessPosition square, TeamColor attacker) {
+        int row = square.getRow();
+        int col = square.getColumn();
+
+        int pawnRow = attacker == TeamColor.WHITE ? row - 1 : row + 1;
+        if (isPieceAt(board, pawnRow, col - 1, attacker, ChessPiece.PieceType.PAWN)
+                || isPieceAt(board, pawnRow, col + 1, attacker, ChessPiece.PieceType.PAWN)) {
+            return true;
+        }
+
+        int[][] knightSpots = {{2,1}, {-2,1}, {2,-1}, {-2,-1}, {1,2}, {-1,2}, {1,-2}, {-1,-2}};
+        for (int[] spot : knightSpots) {
+            if (isPieceAt(board, row + spot[0], col + spot[1], attacker, ChessPiece.PieceType.KNIGHT)) {
+                return true;
+            }
+        }
+
+        int[][] kingSpots = {{1,1}, {1,-1}, {-1,1}, {-1,-1}, {1,0},{-1,0},{0,1},{0,-1}};
+        for (int[] spot : kingSpots) {
+            if (isPieceAt(board, row + spot[0], col + spot[1], attacker, ChessPiece.PieceType.KING)) {
+                return true;
+            }
+        }
+
+        int[][] linear = {{1,0}, {-1,0}, {0,-1}, {0,1}};
+        int[][] diagonal = {{1,1}, {-1,1}, {1,-1}, {-1,-1}};
+        return isSlidingAttack(board, row, col, linear, attacker, ChessPiece.PieceType.ROOK)
+                || isSlidingAttack(board, row, col, diagonal, attacker, ChessPiece.PieceType.BISHOP);
+    }
+
+    //Walks each direction to the first piece and reports if it is the slider type or a queen
+    private static boolean isSlidingAttack(ChessBoard board, int row, int col, int[][] directions,
+                                           TeamColor attacker, ChessPiece.PieceType slider) {
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 1 && r <= 8 && c >= 1 && c <= 8) {
+                ChessPiece piece = board.getPiece(new ChessPosition(r, c));
+                if (piece != null) {
+                    if (piece.getTeamColor() == attacker && (piece.getPieceType() == slider
+                            || piece.getPieceType() == ChessPiece.PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPieceAt(ChessBoard board, int row, int col, TeamColor color, ChessPiece.PieceType type) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return false;
+        }
+        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
     }
 }
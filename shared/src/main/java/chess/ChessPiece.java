@@ -3,6 +3,9 @@ package chess;
 import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a single chess piece
@@ -32,6 +35,38 @@ public class ChessPiece {
         this.type = type;
     }
 
+    //Compact piece codes: 0 is an empty square, 1-6 are white pieces by type and 9-14 black ones
+    static final byte EMPTY = 0;
+    static final int BLACK_BIT = 8;
+    private static final ChessPiece[] BY_CODE = new ChessPiece[16];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                ChessPiece piece = new ChessPiece(color, pieceType);
+                BY_CODE[toCode(piece)] = piece;
+            }
+        }
+    }
+
+    /**
+     * @return the compact code of a piece, or EMPTY for null
+     */
+    static byte toCode(ChessPiece piece) {
+        if (piece == null) {
+            return EMPTY;
+        }
+        int code = piece.type.ordinal() + 1;
+        return (byte) (piece.pieceColor == ChessGame.TeamColor.BLACK ? code | BLACK_BIT : code);
+    }
+
+    /**
+     * @return a shared piece for a compact code, or null for EMPTY
+     */
+    static ChessPiece fromCode(int code) {
+        return BY_CODE[code];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -66,6 +101,20 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public ArrayList<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        RulesEvents.PieceMoves event = new RulesEvents.PieceMoves();
+        event.begin();
+        ArrayList<ChessMove> moves = generateMoves(board, myPosition);
+        event.end();
+        if (event.shouldCommit()) {
+            event.positionKey = board.getPieceKey();
+            event.piece = type.name();
+            event.moveCount = moves.size();
+            event.commit();
+        }
+        return moves;
+    }
+
+    ArrayList<ChessMove> generateMoves(ChessBoard board, ChessPosition myPosition) {
         if (type == PieceType.BISHOP){
             return (diagonalHelper(board, myPosition));
         } else if (type == PieceType.ROOK) {
@@ -82,6 +131,26 @@ public class ChessPiece {
             throw new RuntimeException("Piece not recognized");
         }
     }
+    /**
+     * Lazily hands out the positions this piece can move to, captures first, then quiet
+     * moves, then promotions. Each group is only sorted out once the moves before it
+     * have been consumed.
+     * Does not take into account moves that are illegal due to leaving the king in
+     * danger
+     *
+     * @return Spliterator over the same moves as {@link #pieceMoves(ChessBoard, ChessPosition)}
+     */
+    public Spliterator<ChessMove> lazyPieceMoves(ChessBoard board, ChessPosition myPosition) {
+        return new MoveSpliterator(board, myPosition, this);
+    }
+
+    /**
+     * @return Sequential stream over {@link #lazyPieceMoves(ChessBoard, ChessPosition)}
+     */
+    public Stream<ChessMove> pieceMoveStream(ChessBoard board, ChessPosition myPosition) {
+        return StreamSupport.stream(lazyPieceMoves(board, myPosition), false);
+    }
+
     public ArrayList<ChessMove> diagonalHelper(ChessBoard board, ChessPosition myPosition) {
         ArrayList<ChessMove> moves = new ArrayList<>();
         int row = myPosition.getRow();
@@ -278,9 +347,6 @@ public class ChessPiece {
             if(isValidPosition(newPosition) && (board.getPiece(newPosition) == null || (board.getPiece(newPosition) != null && isDifferentColor(board, myPosition, newPosition)))){
                 moves.add(new ChessMove(myPosition, newPosition, null));
             }
-            if (isValidPosition(newPosition) && (board.getPiece(newPosition) != null && isDifferentColor(board, myPosition, newPosition))){
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            }
         }
         return moves;
     }
@@ -0,0 +1,120 @@
+package chess;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Replays recorded move sequences through {@link ChessGame#makeMove(ChessMove)} on a bounded
+ * pool of worker threads, flagging illegal moves and recording how each game ended
+ * <p>
+ * Each worker keeps one ChessGame that it resets between sequences. When the work queue
+ * is full the submitting thread replays the sequence itself, so a huge input never piles
+ * up in memory.
+ */
+public class GameReplayer implements AutoCloseable {
+    private final ThreadPoolExecutor workers;
+    private final ThreadLocal<ChessGame> games = ThreadLocal.withInitial(ChessGame::new);
+
+    public GameReplayer() {
+        this(Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * @param threads       number of worker threads
+     * @param queueCapacity number of sequences that may wait for a worker
+     */
+    public GameReplayer(int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "game-replay-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Replays every sequence and waits for all of them to finish
+     *
+     * @param sequences the move sequences to replay, each starting from the standard position
+     * @param sink      receives each result as it finishes, possibly from several threads at once
+     * @return totals for the whole batch
+     */
+    public ReplaySummary replayAll(Iterator<MoveList> sequences, Consumer<ReplayResult> sink) {
+        if (workers.isShutdown()) {
+            throw new IllegalStateException("Replayer is closed");
+        }
+        ReplaySummary summary = new ReplaySummary();
+        Phaser pending = new Phaser(1);
+        long index = 0;
+        while (sequences.hasNext()) {
+            MoveList moves = sequences.next();
+            long gameIndex = index++;
+            pending.register();
+            workers.execute(() -> {
+                try {
+                    ReplayResult result = replay(gameIndex, moves, games.get());
+                    summary.record(result);
+                    sink.accept(result);
+                } finally {
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+        pending.arriveAndAwaitAdvance();
+        return summary;
+    }
+
+    /**
+     * Replays a list of sequences
+     *
+     * @param sequences the move sequences to replay
+     * @param sink      receives each result as it finishes
+     * @return totals for the whole batch
+     */
+    public ReplaySummary replayAll(List<MoveList> sequences, Consumer<ReplayResult> sink) {
+        return replayAll(sequences.iterator(), sink);
+    }
+
+    /**
+     * Replays one sequence from the standard starting position
+     *
+     * @param index index of the sequence in its batch
+     * @param moves the moves to make
+     * @param game  game to reuse, its board is reset before replaying
+     * @return the result of the replay
+     */
+    public static ReplayResult replay(long index, MoveList moves, ChessGame game) {
+        ChessBoard board = game.getBoard();
+        board.resetBoard();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        int ply = 0;
+        int illegalPly = -1;
+        String error = null;
+        try {
+            for (; ply < moves.size(); ply++) {
+                game.makeMove(moves.getMove(ply));
+            }
+        } catch (InvalidMoveException e) {
+            illegalPly = ply;
+            error = e.getMessage();
+        } catch (RuntimeException e) {
+            illegalPly = ply;
+            error = e.toString();
+        }
+        return new ReplayResult(index, ply, illegalPly, error, GameStatus.of(game));
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package chess;
+
+/**
+ * The state of a game from the point of view of the team whose turn it is
+ */
+public enum GameStatus {
+    ONGOING,
+    CHECK,
+    CHECKMATE,
+    STALEMATE;
+
+    /**
+     * @return the status of the team to move in the given game
+     */
+    public static GameStatus of(ChessGame game) {
+        ChessGame.TeamColor team = game.getTeamTurn();
+        if (game.isInCheckmate(team)) {
+            return CHECKMATE;
+        } else if (game.isInStalemate(team)) {
+            return STALEMATE;
+        } else if (game.isInCheck(team)) {
+            return CHECK;
+        }
+        return ONGOING;
+    }
+}
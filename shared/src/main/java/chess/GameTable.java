@@ -0,0 +1,241 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Holds the positions of many games in flat parallel arrays instead of one ChessGame object
+ * per game. Each game lives in a numbered slot; slot {@code id} owns squares
+ * {@code [id * 64, id * 64 + 64)} of the board array and element {@code id} of every other
+ * array, so a batch of moves walks contiguous memory rather than chasing pointers.
+ * <p>
+ * Batch operations load a slot into a reusable per-thread game, run the normal rules on it
+ * and store the result back. Different threads may work on different slots at the same
+ * time, but a single slot must only be touched by one thread at a time. Creating and
+ * releasing slots must not overlap with anything else.
+ */
+public class GameTable {
+    //Each thread reuses one game for loading slots, so batches allocate nothing per move
+    private static final ThreadLocal<ChessGame> SCRATCH = ThreadLocal.withInitial(ChessGame::new);
+    private static final byte NO_EN_PASSANT = -1;
+    private static final int PAWN_CODE = ChessPiece.PieceType.PAWN.ordinal() + 1;
+
+    private byte[] squares;
+    private byte[] teamTurn;
+    private byte[] castlingRights;
+    private byte[] enPassant;
+    private long[] positionKeys;
+    private int[] plies;
+    //Half moves since the last capture or pawn move, for the fifty-move rule
+    private short[] halfmoveClocks;
+    private boolean[] used;
+    private int[] freeSlots;
+    private int freeCount;
+    private int size;
+    private int live;
+
+    /**
+     * @param initialCapacity how many games to make room for up front
+     */
+    public GameTable(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Table needs room for at least one game");
+        }
+        squares = new byte[initialCapacity * 64];
+        teamTurn = new byte[initialCapacity];
+        castlingRights = new byte[initialCapacity];
+        enPassant = new byte[initialCapacity];
+        positionKeys = new long[initialCapacity];
+        plies = new int[initialCapacity];
+        halfmoveClocks = new short[initialCapacity];
+        used = new boolean[initialCapacity];
+        freeSlots = new int[initialCapacity];
+    }
+
+    /**
+     * Adds a game in the standard starting position
+     *
+     * @return the new game's id
+     */
+    public int create() {
+        int id = allocate();
+        store(id, new ChessGame());
+        plies[id] = 0;
+        halfmoveClocks[id] = 0;
+        return id;
+    }
+
+    /**
+     * Frees a game's slot so a later {@link #create()} can reuse it
+     */
+    public void release(int id) {
+        checkId(id);
+        used[id] = false;
+        freeSlots[freeCount++] = id;
+        live--;
+    }
+
+    /**
+     * @return how many games are currently in the table
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Makes one move in each of several games. Illegal moves leave their game unchanged.
+     *
+     * @param ids     game ids
+     * @param moves   packed moves (see {@link PackedMove}), one per id
+     * @param results set to whether each move was made
+     * @return how many of the moves were made
+     */
+    public int applyMoves(int[] ids, short[] moves, boolean[] results) {
+        if (moves.length < ids.length || results.length < ids.length) {
+            throw new IllegalArgumentException("Need one move and one result per game");
+        }
+        ChessGame game = SCRATCH.get();
+        int made = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            load(id, game);
+            //Read before the move overwrites the squares
+            int moved = squares[id * 64 + PackedMove.from(moves[i])] & 7;
+            boolean capture = squares[id * 64 + PackedMove.to(moves[i])] != 0;
+            try {
+                game.makeMove(PackedMove.decode(moves[i]));
+            } catch (InvalidMoveException e) {
+                results[i] = false;
+                continue;
+            }
+            store(id, game);
+            plies[id]++;
+            halfmoveClocks[id] = moved == PAWN_CODE || capture ? 0 : (short) (halfmoveClocks[id] + 1);
+            results[i] = true;
+            made++;
+        }
+        return made;
+    }
+
+    /**
+     * Finds the status of the team to move in each of several games
+     *
+     * @param ids      game ids
+     * @param statuses filled with one status per id
+     */
+    public void statuses(int[] ids, GameStatus[] statuses) {
+        if (statuses.length < ids.length) {
+            throw new IllegalArgumentException("Need one status per game");
+        }
+        ChessGame game = SCRATCH.get();
+        for (int i = 0; i < ids.length; i++) {
+            load(ids[i], game);
+            statuses[i] = GameStatus.of(game);
+        }
+    }
+
+    /**
+     * Builds a full ChessGame from the slot, which allocates a board and game per call. To
+     * read single squares use {@link #getPiece} and the other getters, which read the arrays
+     * directly.
+     *
+     * @return a new game holding a copy of the slot's position. Changes to it do not reach
+     * the table until passed to {@link #store(int, ChessGame)}.
+     */
+    public ChessGame copyGame(int id) {
+        ChessGame game = new ChessGame();
+        load(id, game);
+        return game;
+    }
+
+    /**
+     * @return the piece on a square of the game's board, or null if the square is empty.
+     * Pieces are shared instances, so nothing is allocated.
+     */
+    public ChessPiece getPiece(int id, ChessPosition position) {
+        checkId(id);
+        return ChessPiece.fromCode(squares[id * 64 + PackedMove.index(position)]);
+    }
+
+    /**
+     * Copies a game's position into a slot. The slot's ply count and halfmove clock are left
+     * as they are.
+     */
+    public void store(int id, ChessGame game) {
+        checkId(id);
+        game.getBoard().copyTo(squares, id * 64);
+        teamTurn[id] = (byte) game.getTeamTurn().ordinal();
+        castlingRights[id] = (byte) game.getCastlingRights();
+        ChessPosition target = game.getEnPassantTarget();
+        enPassant[id] = target == null ? NO_EN_PASSANT : (byte) PackedMove.index(target);
+        positionKeys[id] = game.getPositionKey();
+    }
+
+    public ChessGame.TeamColor getTeamTurn(int id) {
+        checkId(id);
+        return ChessGame.TeamColor.values()[teamTurn[id]];
+    }
+
+    /**
+     * @return the game's position hash, see {@link ChessGame#getPositionKey()}
+     */
+    public long getPositionKey(int id) {
+        checkId(id);
+        return positionKeys[id];
+    }
+
+    /**
+     * @return how many moves have been made through {@link #applyMoves} since the game was created
+     */
+    public int getPly(int id) {
+        checkId(id);
+        return plies[id];
+    }
+
+    /**
+     * @return half moves made through {@link #applyMoves} since the last capture or pawn move
+     */
+    public int getHalfmoveClock(int id) {
+        checkId(id);
+        return halfmoveClocks[id];
+    }
+
+    private void load(int id, ChessGame game) {
+        checkId(id);
+        ChessPosition target = enPassant[id] == NO_EN_PASSANT ? null : PackedMove.position(enPassant[id]);
+        game.load(squares, id * 64, ChessGame.TeamColor.values()[teamTurn[id]], castlingRights[id], target);
+    }
+
+    private int allocate() {
+        int id;
+        if (freeCount > 0) {
+            id = freeSlots[--freeCount];
+        } else {
+            if (size == used.length) {
+                grow();
+            }
+            id = size++;
+        }
+        used[id] = true;
+        live++;
+        return id;
+    }
+
+    private void grow() {
+        int capacity = used.length * 2;
+        squares = Arrays.copyOf(squares, capacity * 64);
+        teamTurn = Arrays.copyOf(teamTurn, capacity);
+        castlingRights = Arrays.copyOf(castlingRights, capacity);
+        enPassant = Arrays.copyOf(enPassant, capacity);
+        positionKeys = Arrays.copyOf(positionKeys, capacity);
+        plies = Arrays.copyOf(plies, capacity);
+        halfmoveClocks = Arrays.copyOf(halfmoveClocks, capacity);
+        used = Arrays.copyOf(used, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size || !used[id]) {
+            throw new IllegalArgumentException("No game with id " + id);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package chess;
+
+/**
+ * Generates every legal move for one side in a single pass over the board
+ * <p>
+ * The squares the enemy attacks, the pieces pinned to the king and the squares that
+ * answer a check are worked out once up front, and then each piece's moves are checked
+ * against them instead of being tried out on a copy of the board one by one. Squares are
+ * indexed 0-63 (a1 = 0) and sets of squares are kept as 64-bit masks.
+ */
+final class LegalMoveGenerator {
+    private static final int[][] DIAGONAL = {{1,1}, {-1,1}, {1,-1}, {-1,-1}};
+    private static final int[][] LINEAR = {{1,0}, {-1,0}, {0,-1}, {0,1}};
+    private static final int[][] KNIGHT_SPOTS = {{2,1}, {-2,1}, {2,-1}, {-2,-1}, {1,2}, {-1,2}, {1,-2}, {-1,-2}};
+    private static final int[][] KING_SPOTS = {{1,1}, {1,-1}, {-1,1}, {-1,-1}, {1,0}, {-1,0}, {0,1}, {0,-1}};
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private static final int KING = ChessPiece.PieceType.KING.ordinal() + 1;
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal() + 1;
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal() + 1;
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal() + 1;
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal() + 1;
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal() + 1;
+
+    private final ChessBoard board;
+    private final int colorBit;
+    private final int enemyBit;
+    private final int kingSquare;
+    private long ownPieces;
+    //Square treated as empty by sliding attacks, or -1
+    private int transparent = -1;
+    //Squares the enemy attacks, looking through our king so it cannot step back along a ray
+    private long attacked;
+    //Squares a non-king move must land on: everything, or whatever captures or blocks the single checker
+    private long checkMask = -1L;
+    private int checkers;
+    //Bits of the pinned pieces, and for each pinned square the ray it may move along
+    private long pinned;
+    private final long[] pinRays = new long[64];
+
+    private LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor side) {
+        this.board = board;
+        this.colorBit = side == ChessGame.TeamColor.BLACK ? ChessPiece.BLACK_BIT : 0;
+        this.enemyBit = colorBit ^ ChessPiece.BLACK_BIT;
+        int king = -1;
+        for (int square = 0; square < 64; square++) {
+            int code = board.getCode(square);
+            if (code != ChessPiece.EMPTY && (code & ChessPiece.BLACK_BIT) == colorBit) {
+                ownPieces |= 1L << square;
+                if (code == (KING | colorBit)) {
+                    king = square;
+                }
+            }
+        }
+        this.kingSquare = king;
+    }
+
+    /**
+     * Generates every legal move for a side
+     *
+     * @param board           the board
+     * @param side            the side to generate moves for
+     * @param castlingRights  castles still available, as the ChessGame castling bits
+     * @param enPassantTarget square a pawn may capture en passant onto, or null
+     * @return the moves, packed
+     */
+    static MoveList generate(ChessBoard board, ChessGame.TeamColor side, int castlingRights,
+                             ChessPosition enPassantTarget) {
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, side);
+        generator.analyze();
+        MoveList moves = new MoveList(48);
+        generator.addMoves(moves, castlingRights, enPassantTarget);
+        return moves;
+    }
+
+    /**
+     * Generates only the legal moves that give check. Direct checks are found by testing
+     * whether the moved piece attacks the enemy king from its new square, and discovered
+     * checks from the pieces that alone stand between one of our sliders and the enemy
+     * king, found the same way as pins. No move is tried out on a copy except the rare en
+     * passant capture.
+     *
+     * @return the checking moves, packed
+     */
+    static MoveList generateChecks(ChessBoard board, ChessGame.TeamColor side, int castlingRights,
+                                   ChessPosition enPassantTarget) {
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, side);
+        generator.analyze();
+        MoveList legal = new MoveList(48);
+        generator.addMoves(legal, castlingRights, enPassantTarget);
+        MoveList checks = new MoveList();
+        int enemyKing = generator.findEnemyKing();
+        if (enemyKing < 0) {
+            return checks;
+        }
+        long[] discoverRays = new long[64];
+        long discoverers = generator.findDiscoverers(enemyKing, discoverRays);
+        for (int i = 0; i < legal.size(); i++) {
+            short move = legal.get(i);
+            if (generator.givesCheck(move, enemyKing, discoverers, discoverRays)) {
+                checks.add(move);
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * Works out enemy attacks, checkers and pins around our king
+     */
+    private void analyze() {
+        if (kingSquare < 0) {
+            return;
+        }
+        //Sliders attack through our king, so it cannot step back along the ray it is checked on
+        transparent = kingSquare;
+        for (int square = 0; square < 64; square++) {
+            int code = board.getCode(square);
+            if (code != ChessPiece.EMPTY && (code & ChessPiece.BLACK_BIT) == enemyBit) {
+                attacked |= attacks(square, code);
+            }
+        }
+        transparent = -1;
+
+        long checkSquares = 0;
+        int kingRow = kingSquare >> 3;
+        int kingCol = kingSquare & 7;
+        for (int[] spot : KNIGHT_SPOTS) {
+            int square = squareAt(kingRow + spot[0], kingCol + spot[1]);
+            if (square >= 0 && board.getCode(square) == (KNIGHT | enemyBit)) {
+                checkers++;
+                checkSquares |= 1L << square;
+            }
+        }
+        int forward = colorBit == 0 ? 1 : -1;
+        for (int side = -1; side <= 1; side += 2) {
+            int square = squareAt(kingRow + forward, kingCol + side);
+            if (square >= 0 && board.getCode(square) == (PAWN | enemyBit)) {
+                checkers++;
+                checkSquares |= 1L << square;
+            }
+        }
+
+        //Walk out from the king: a slider is either checking, or pinning the one friendly piece between
+        for (int i = 0; i < 8; i++) {
+            int[] dir = i < 4 ? LINEAR[i] : DIAGONAL[i - 4];
+            int slider = i < 4 ? ROOK : BISHOP;
+            long ray = 0;
+            int blocker = -1;
+            int row = kingRow + dir[0];
+            int col = kingCol + dir[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                int square = row * 8 + col;
+                int code = board.getCode(square);
+                ray |= 1L << square;
+                if (code != ChessPiece.EMPTY) {
+                    if ((code & ChessPiece.BLACK_BIT) == colorBit) {
+                        if (blocker >= 0) {
+                            break;
+                        }
+                        blocker = square;
+                    } else {
+                        int type = code & ~ChessPiece.BLACK_BIT;
+                        if (type == slider || type == QUEEN) {
+                            if (blocker < 0) {
+                                checkers++;
+                                checkSquares |= ray;
+                            } else {
+                                pinned |= 1L << blocker;
+                                pinRays[blocker] = ray;
+                            }
+                        }
+                        break;
+                    }
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+
+        if (checkers == 1) {
+            checkMask = checkSquares;
+        } else if (checkers > 1) {
+            checkMask = 0;
+        }
+    }
+
+    private void addMoves(MoveList moves, int castlingRights, ChessPosition enPassantTarget) {
+        for (int square = 0; square < 64; square++) {
+            int code = board.getCode(square);
+            if (code == ChessPiece.EMPTY || (code & ChessPiece.BLACK_BIT) != colorBit) {
+                continue;
+            }
+            int type = code & ~ChessPiece.BLACK_BIT;
+            if (type == KING) {
+                addKingMoves(square, moves, castlingRights);
+            } else if (checkers < 2) {
+                long allowed = checkMask;
+                if ((pinned & (1L << square)) != 0) {
+                    allowed &= pinRays[square];
+                }
+                if (type == PAWN) {
+                    addPawnMoves(square, allowed, moves, enPassantTarget);
+                } else {
+                    long targets = attacks(square, code) & ~ownPieces & allowed;
+                    addTargets(square, targets, moves);
+                }
+            }
+        }
+    }
+
+    private void addKingMoves(int square, MoveList moves, int castlingRights) {
+        long targets = attacks(square, KING | colorBit) & ~ownPieces & ~attacked;
+        addTargets(square, targets, moves);
+
+        int home = colorBit == 0 ? 4 : 60;
+        if (square != home || checkers > 0) {
+            return;
+        }
+        int kingSide = colorBit == 0 ? ChessGame.WHITE_KING_SIDE : ChessGame.BLACK_KING_SIDE;
+        int queenSide = colorBit == 0 ? ChessGame.WHITE_QUEEN_SIDE : ChessGame.BLACK_QUEEN_SIDE;
+        if ((castlingRights & kingSide) != 0 && board.getCode(home + 3) == (ROOK | colorBit)
+                && board.getCode(home + 1) == ChessPiece.EMPTY && board.getCode(home + 2) == ChessPiece.EMPTY
+                && (attacked & (3L << (home + 1))) == 0) {
+            moves.add(PackedMove.encode(home, home + 2, null));
+        }
+        if ((castlingRights & queenSide) != 0 && board.getCode(home - 4) == (ROOK | colorBit)
+                && board.getCode(home - 1) == ChessPiece.EMPTY && board.getCode(home - 2) == ChessPiece.EMPTY
+                && board.getCode(home - 3) == ChessPiece.EMPTY
+                && (attacked & (3L << (home - 2))) == 0) {
+            moves.add(PackedMove.encode(home, home - 2, null));
+        }
+    }
+
+    private void addPawnMoves(int square, long allowed, MoveList moves, ChessPosition enPassantTarget) {
+        int row = square >> 3;
+        int col = square & 7;
+        int forward = colorBit == 0 ? 1 : -1;
+        int startRow = colorBit == 0 ? 1 : 6;
+        int lastRow = colorBit == 0 ? 7 : 0;
+
+        int single = squareAt(row + forward, col);
+        if (single >= 0 && board.getCode(single) == ChessPiece.EMPTY) {
+            if ((allowed & (1L << single)) != 0) {
+                addPawnMove(square, single, single >> 3 == lastRow, moves);
+            }
+            int twice = single + forward * 8;
+            if (row == startRow && board.getCode(twice) == ChessPiece.EMPTY && (allowed & (1L << twice)) != 0) {
+                moves.add(PackedMove.encode(square, twice, null));
+            }
+        }
+        for (int side = -1; side <= 1; side += 2) {
+            int target = squareAt(row + forward, col + side);
+            if (target < 0) {
+                continue;
+            }
+            int code = board.getCode(target);
+            if (code != ChessPiece.EMPTY && (code & ChessPiece.BLACK_BIT) == enemyBit
+                    && (allowed & (1L << target)) != 0) {
+                addPawnMove(square, target, target >> 3 == lastRow, moves);
+            } else if (enPassantTarget != null && target == PackedMove.index(enPassantTarget)
+                    && isLegalEnPassant(square, target)) {
+                moves.add(PackedMove.encode(square, target, null));
+            }
+        }
+    }
+
+    private int findEnemyKing() {
+        for (int square = 0; square < 64; square++) {
+            if (board.getCode(square) == (KING | enemyBit)) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds our pieces that are the only thing between one of our sliders and the enemy
+     * king, so moving them off the line gives a discovered check
+     *
+     * @param rays filled, for each such piece, with the line it must leave
+     * @return bits of those pieces
+     */
+    private long findDiscoverers(int enemyKing, long[] rays) {
+        long discoverers = 0;
+        int kingRow = enemyKing >> 3;
+        int kingCol = enemyKing & 7;
+        for (int i = 0; i < 8; i++) {
+            int[] dir = i < 4 ? LINEAR[i] : DIAGONAL[i - 4];
+            int slider = i < 4 ? ROOK : BISHOP;
+            long ray = 0;
+            int blocker = -1;
+            int row = kingRow + dir[0];
+            int col = kingCol + dir[1];
+            while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                int square = row * 8 + col;
+                int code = board.getCode(square);
+                ray |= 1L << square;
+                if (code != ChessPiece.EMPTY) {
+                    if ((code & ChessPiece.BLACK_BIT) != colorBit) {
+                        break;
+                    }
+                    if (blocker >= 0) {
+                        int type = code & ~ChessPiece.BLACK_BIT;
+                        if (type == slider || type == QUEEN) {
+                            discoverers |= 1L << blocker;
+                            rays[blocker] = ray;
+                        }
+                        break;
+                    }
+                    blocker = square;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return discoverers;
+    }
+
+    private boolean givesCheck(short move, int enemyKing, long discoverers, long[] discoverRays) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int code = board.getCode(from);
+        int type = code & ~ChessPiece.BLACK_BIT;
+        long kingBit = 1L << enemyKing;
+
+        if ((discoverers & (1L << from)) != 0 && (discoverRays[from] & (1L << to)) == 0) {
+            return true;
+        }
+        if (type == KING) {
+            if (Math.abs(to - from) != 2) {
+                return false;
+            }
+            //Castling checks with the rook from its new square, looking past the king's old square
+            int rookSquare = (from + to) / 2;
+            transparent = from;
+            boolean check = (attacks(rookSquare, ROOK | colorBit) & kingBit) != 0;
+            transparent = -1;
+            return check;
+        }
+        if (type == PAWN && (from & 7) != (to & 7) && board.getCode(to) == ChessPiece.EMPTY) {
+            //En passant also removes the captured pawn, which may open a line to the king
+            ChessBoard test = new ChessBoard(board);
+            test.setCode(to, (byte) code);
+            test.setCode(from, ChessPiece.EMPTY);
+            test.setCode((from & ~7) | (to & 7), ChessPiece.EMPTY);
+            return isAttacked(test, enemyKing, colorBit);
+        }
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        int moved = promotion != null ? (promotion.ordinal() + 1) | colorBit : code;
+        //The start square is empty once the piece has left it
+        transparent = from;
+        boolean check = (attacks(to, moved) & kingBit) != 0;
+        transparent = -1;
+        return check;
+    }
+
+    private static void addPawnMove(int from, int to, boolean promotes, MoveList moves) {
+        if (promotes) {
+            for (ChessPiece.PieceType type : PROMOTIONS) {
+                moves.add(PackedMove.encode(from, to, type));
+            }
+        } else {
+            moves.add(PackedMove.encode(from, to, null));
+        }
+    }
+
+    /**
+     * En passant removes two pieces from one rank at once, which the pin analysis does not
+     * cover, so it is tried out on a copy of the board
+     */
+    private boolean isLegalEnPassant(int from, int to) {
+        if (kingSquare < 0) {
+            return true;
+        }
+        int captured = (from & ~7) | (to & 7);
+        if (board.getCode(captured) != (PAWN | enemyBit)) {
+            return false;
+        }
+        ChessBoard test = new ChessBoard(board);
+        test.setCode(to, test.getCode(from));
+        test.setCode(from, ChessPiece.EMPTY);
+        test.setCode(captured, ChessPiece.EMPTY);
+        return !isAttacked(test, kingSquare, enemyBit);
+    }
+
+    private static void addTargets(int from, long targets, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(PackedMove.encode(from, to, null));
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * @return squares the piece on a square attacks, including ones holding pieces of either
+     * color. Pawns only count their diagonal captures.
+     */
+    private long attacks(int square, int code) {
+        int type = code & ~ChessPiece.BLACK_BIT;
+        int own = code & ChessPiece.BLACK_BIT;
+        int row = square >> 3;
+        int col = square & 7;
+        long result = 0;
+        if (type == PAWN) {
+            int forward = own == 0 ? 1 : -1;
+            for (int side = -1; side <= 1; side += 2) {
+                int target = squareAt(row + forward, col + side);
+                if (target >= 0) result |= 1L << target;
+            }
+        } else if (type == KNIGHT || type == KING) {
+            for (int[] spot : type == KNIGHT ? KNIGHT_SPOTS : KING_SPOTS) {
+                int target = squareAt(row + spot[0], col + spot[1]);
+                if (target >= 0) result |= 1L << target;
+            }
+        } else {
+            if (type == ROOK || type == QUEEN) result |= slide(row, col, LINEAR);
+            if (type == BISHOP || type == QUEEN) result |= slide(row, col, DIAGONAL);
+        }
+        return result;
+    }
+
+    private long slide(int row, int col, int[][] directions) {
+        long result = 0;
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                int target = r * 8 + c;
+                result |= 1L << target;
+                if (target != transparent && board.getCode(target) != ChessPiece.EMPTY) {
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determines if a square is attacked by any piece of the given color
+     */
+    static boolean isAttacked(ChessBoard board, int square, int attackerBit) {
+        int row = square >> 3;
+        int col = square & 7;
+        int forward = attackerBit == 0 ? -1 : 1;
+        for (int side = -1; side <= 1; side += 2) {
+            int target = squareAt(row + forward, col + side);
+            if (target >= 0 && board.getCode(target) == (PAWN | attackerBit)) return true;
+        }
+        for (int[] spot : KNIGHT_SPOTS) {
+            int target = squareAt(row + spot[0], col + spot[1]);
+            if (target >= 0 && board.getCode(target) == (KNIGHT | attackerBit)) return true;
+        }
+        for (int[] spot : KING_SPOTS) {
+            int target = squareAt(row + spot[0], col + spot[1]);
+            if (target >= 0 && board.getCode(target) == (KING | attackerBit)) return true;
+        }
+        return isSlidingAttack(board, row, col, LINEAR, ROOK | attackerBit, QUEEN | attackerBit)
+                || isSlidingAttack(board, row, col, DIAGONAL, BISHOP | attackerBit, QUEEN | attackerBit);
+    }
+
+    private static boolean isSlidingAttack(ChessBoard board, int row, int col, int[][] directions,
+                                           int slider, int queen) {
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                int code = board.getCode(r * 8 + c);
+                if (code != ChessPiece.EMPTY) {
+                    if (code == slider || code == queen) return true;
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return false;
+    }
+
+    private static int squareAt(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8 ? row * 8 + col : -1;
+    }
+}
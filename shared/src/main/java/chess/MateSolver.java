@@ -0,0 +1,81 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Proves forced mates for puzzles. The side to move is the attacker and may only play
+ * moves that give check, which keeps the tree far smaller than a general search; every
+ * defending reply is tried. Checking moves are generated directly from the attack and pin
+ * information, and moves are applied to copies without being validated again since the
+ * generator only produces legal ones. A position counts as mate under the same rule as
+ * {@link ChessGame#isInCheckmate(ChessGame.TeamColor)}: the defender is in check and has no
+ * legal move.
+ * <p>
+ * Checkless (quiet) mating moves are never found, so puzzles whose solution starts with a
+ * quiet move are reported as unsolved.
+ */
+public final class MateSolver {
+
+    private MateSolver() {
+    }
+
+    /**
+     * Finds the first move of the shortest forced mate
+     *
+     * @param game     the puzzle position; it is not changed
+     * @param maxMoves the most attacking moves the mate may take
+     * @return the attacker's first move, or null if there is no checking mate within maxMoves
+     */
+    public static ChessMove solve(ChessGame game, int maxMoves) {
+        if (maxMoves < 1) {
+            throw new IllegalArgumentException("A mate takes at least one move");
+        }
+        for (int moves = 1; moves <= maxMoves; moves++) {
+            ChessMove first = attack(game, moves);
+            if (first != null) {
+                return first;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Solves a batch of puzzles in parallel
+     *
+     * @return one result of {@link #solve(ChessGame, int)} per puzzle, in the same order
+     */
+    public static List<ChessMove> solveAll(List<ChessGame> puzzles, int maxMoves) {
+        if (maxMoves < 1) {
+            throw new IllegalArgumentException("A mate takes at least one move");
+        }
+        return puzzles.parallelStream().map(puzzle -> solve(puzzle, maxMoves)).toList();
+    }
+
+    //Returns a checking move after which every defence is mated within the remaining moves
+    private static ChessMove attack(ChessGame game, int moves) {
+        MoveList checks = game.checkingMoves(game.getTeamTurn());
+        for (int i = 0; i < checks.size(); i++) {
+            if (!escapes(game.afterLegalMove(checks.get(i)), moves - 1)) {
+                return PackedMove.decode(checks.get(i));
+            }
+        }
+        return null;
+    }
+
+    //True if the defender, who is in check, has a reply that avoids mate within the remaining moves
+    private static boolean escapes(ChessGame game, int moves) {
+        MoveList replies = game.allLegalMoves(game.getTeamTurn());
+        if (replies.isEmpty()) {
+            return false;
+        }
+        if (moves == 0) {
+            return true;
+        }
+        for (int i = 0; i < replies.size(); i++) {
+            if (attack(game.afterLegalMove(replies.get(i)), moves) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of legal moves keyed by position hash and start square. Entries are
+ * immutable packed move arrays (see {@link PackedMove}) and the least recently used entry
+ * is evicted once the cache is full.
+ * <p>
+ * One cache may be shared by many games and threads.
+ */
+public class MoveCache {
+    private final Map<Key, short[]> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Key(long positionKey, int square) {
+    }
+
+    /**
+     * @param maxEntries how many position and square pairs to keep
+     */
+    public MoveCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache needs room for at least one entry");
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, short[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param positionKey hash of the whole position, see {@link ChessGame#getPositionKey()}
+     * @param square      start square index (0-63)
+     * @return the cached packed moves, or null if they are not cached. Callers must not
+     * modify the array.
+     */
+    short[] get(long positionKey, int square) {
+        short[] moves;
+        synchronized (entries) {
+            moves = entries.get(new Key(positionKey, square));
+        }
+        if (moves == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return moves;
+    }
+
+    void put(long positionKey, int square, short[] moves) {
+        synchronized (entries) {
+            entries.put(new Key(positionKey, square), moves);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,183 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable list of packed moves (see {@link PackedMove}) backed by a short array,
+ * used to hold whole game histories at 2 bytes per ply
+ */
+public class MoveList implements Iterable<ChessMove> {
+    private short[] moves;
+    private int size;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MoveList that = (MoveList) o;
+        return Arrays.equals(moves, 0, size, that.moves, 0, that.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + moves[i];
+        }
+        return result;
+    }
+
+    public MoveList() {
+        this(16);
+    }
+
+    public MoveList(int initialCapacity) {
+        moves = new short[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Creates a list holding a copy of the given packed moves
+     *
+     * @param packed packed moves to copy
+     */
+    public MoveList(short[] packed) {
+        moves = Arrays.copyOf(packed, Math.max(packed.length, 1));
+        size = packed.length;
+    }
+
+    /**
+     * Adds a move to the end of the list
+     *
+     * @param move the move to add
+     */
+    public void add(ChessMove move) {
+        add(PackedMove.encode(move));
+    }
+
+    /**
+     * Adds a packed move to the end of the list
+     *
+     * @param packed the packed move to add
+     */
+    public void add(short packed) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = packed;
+    }
+
+    /**
+     * @return the packed move at the given index
+     */
+    public short get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return the move at the given index as a ChessMove
+     */
+    public ChessMove getMove(int index) {
+        return PackedMove.decode(get(index));
+    }
+
+    /**
+     * @return number of moves in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every move while keeping the backing array for reuse
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes moves from the end of the list until it holds the given number of moves
+     *
+     * @param newSize the number of moves to keep
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Cannot truncate size " + size + " to " + newSize);
+        }
+        size = newSize;
+    }
+
+    /**
+     * @return a copy of the packed moves
+     */
+    public short[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Writes the list as big-endian 16-bit values, 2 bytes per move
+     *
+     * @return the encoded bytes
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * 2);
+        buffer.asShortBuffer().put(moves, 0, size);
+        return buffer.array();
+    }
+
+    /**
+     * Reads a list written by {@link #toBytes()}
+     *
+     * @param bytes the encoded bytes
+     * @return the decoded list
+     */
+    public static MoveList fromBytes(byte[] bytes) {
+        if (bytes.length % 2 != 0) {
+            throw new IllegalArgumentException("Move log length must be even, was " + bytes.length);
+        }
+        short[] packed = new short[bytes.length / 2];
+        ByteBuffer.wrap(bytes).asShortBuffer().get(packed);
+        return new MoveList(packed);
+    }
+
+    @Override
+    public Iterator<ChessMove> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public ChessMove next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return PackedMove.decode(moves[next++]);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(PackedMove.toString(moves[i]));
+        }
+        return text.toString();
+    }
+}
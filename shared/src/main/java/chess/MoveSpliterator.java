@@ -0,0 +1,90 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Hands out the moves of one piece one stage at a time: captures first, then quiet moves,
+ * then promotions. The moves come from the same helpers as
+ * {@link ChessPiece#pieceMoves(ChessBoard, ChessPosition)}, worked out when the first move is
+ * asked for; a stage is only sorted out once the consumer has taken every move of the stage
+ * before it, so callers that stop early (such as "is there any capture?") skip the rest.
+ * <p>
+ * Like pieceMoves, this does not check whether a move leaves the king in danger.
+ */
+class MoveSpliterator implements Spliterator<ChessMove> {
+    /**
+     * The groups of moves, in the order they are produced
+     */
+    enum Stage {
+        CAPTURES,
+        QUIETS,
+        PROMOTIONS
+    }
+
+    private final ChessBoard board;
+    private final ChessPosition start;
+    private final ChessPiece piece;
+    private final ArrayList<ChessMove> buffer = new ArrayList<>();
+    private ArrayList<ChessMove> all;
+    private int next;
+    private int stage = -1;
+
+    MoveSpliterator(ChessBoard board, ChessPosition start, ChessPiece piece) {
+        this.board = board;
+        this.start = start;
+        this.piece = piece;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ChessMove> action) {
+        while (next >= buffer.size()) {
+            if (stage + 1 >= Stage.values().length) {
+                return false;
+            }
+            if (all == null) {
+                all = piece.generateMoves(board, start);
+            }
+            stage++;
+            buffer.clear();
+            next = 0;
+            select(Stage.values()[stage], buffer);
+        }
+        action.accept(buffer.get(next++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<ChessMove> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return all == null ? Long.MAX_VALUE : all.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+
+    /**
+     * Adds every move of one stage to the list
+     */
+    private void select(Stage stage, ArrayList<ChessMove> moves) {
+        for (ChessMove move : all) {
+            if (stageOf(move) == stage) {
+                moves.add(move);
+            }
+        }
+    }
+
+    private Stage stageOf(ChessMove move) {
+        if (move.getPromotionPiece() != null) {
+            return Stage.PROMOTIONS;
+        }
+        return board.getPiece(move.getEndPosition()) != null ? Stage.CAPTURES : Stage.QUIETS;
+    }
+}
@@ -0,0 +1,160 @@
+package chess;
+
+/**
+ * Packs a chess move into 16 bits so game records and move logs can store
+ * 2 bytes per ply instead of a full ChessMove object graph
+ * <p>
+ * Layout (least significant bit first):
+ * bits 0-5 start square, bits 6-11 end square, bits 12-14 promotion piece,
+ * bit 15 reserved flag. Squares are indexed 0-63 with a1 = 0 and h8 = 63.
+ */
+public final class PackedMove {
+    /**
+     * Value that never encodes a real move (a1 to a1, no promotion)
+     */
+    public static final short NONE = 0;
+
+    public static final int FLAG = 1 << 15;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+
+    //Index 0 means no promotion
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            POSITIONS[i] = new ChessPosition(i / 8 + 1, i % 8 + 1);
+        }
+    }
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move into 16 bits
+     *
+     * @param move the move to pack
+     * @return the packed move
+     */
+    public static short encode(ChessMove move) {
+        return encode(index(move.getStartPosition()), index(move.getEndPosition()), move.getPromotionPiece());
+    }
+
+    /**
+     * Packs a move given as square indexes into 16 bits
+     *
+     * @param from      start square, 0-63
+     * @param to        end square, 0-63
+     * @param promotion piece to promote to, or null
+     * @return the packed move
+     */
+    public static short encode(int from, int to, ChessPiece.PieceType promotion) {
+        return (short) (from | (to << TO_SHIFT) | (promotionCode(promotion) << PROMOTION_SHIFT));
+    }
+
+    /**
+     * Unpacks a move produced by {@link #encode(ChessMove)}
+     *
+     * @param packed the packed move
+     * @return the equivalent ChessMove
+     */
+    public static ChessMove decode(short packed) {
+        return new ChessMove(position(from(packed)), position(to(packed)), promotion(packed));
+    }
+
+    /**
+     * @return start square index of the packed move
+     */
+    public static int from(short packed) {
+        return packed & SQUARE_MASK;
+    }
+
+    /**
+     * @return end square index of the packed move
+     */
+    public static int to(short packed) {
+        return (packed >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the promotion piece of the packed move, or null if it is not a promotion
+     * @throws IllegalArgumentException if the promotion bits hold a code no piece uses
+     */
+    public static ChessPiece.PieceType promotion(short packed) {
+        int code = (packed >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        //Three bits but only five codes, and packed moves can come from bytes or database rows
+        if (code >= PROMOTIONS.length) {
+            throw new IllegalArgumentException("Invalid promotion code " + code + " in packed move 0x"
+                    + Integer.toHexString(packed & 0xFFFF));
+        }
+        return PROMOTIONS[code];
+    }
+
+    /**
+     * @return True if the reserved flag bit is set
+     */
+    public static boolean hasFlag(short packed) {
+        return (packed & FLAG) != 0;
+    }
+
+    /**
+     * @return the packed move with the reserved flag bit set
+     */
+    public static short withFlag(short packed) {
+        return (short) (packed | FLAG);
+    }
+
+    /**
+     * @return square index (0-63) of a board position
+     */
+    public static int index(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + (position.getColumn() - 1);
+    }
+
+    /**
+     * @return shared ChessPosition for a square index (0-63)
+     */
+    public static ChessPosition position(int index) {
+        return POSITIONS[index];
+    }
+
+    /**
+     * Formats a packed move in coordinate notation, for example "e2e4" or "e7e8q"
+     *
+     * @param packed the packed move
+     * @return the move as text
+     */
+    public static String toString(short packed) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(packed));
+        appendSquare(text, to(packed));
+        ChessPiece.PieceType promotion = promotion(packed);
+        if (promotion != null) {
+            text.append(promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + square % 8)).append((char) ('1' + square / 8));
+    }
+
+    private static int promotionCode(ChessPiece.PieceType promotion) {
+        if (promotion == null) {
+            return 0;
+        }
+        return switch (promotion) {
+            case KNIGHT -> 1;
+            case BISHOP -> 2;
+            case ROOK -> 3;
+            case QUEEN -> 4;
+            default -> throw new IllegalArgumentException("Cannot promote to " + promotion);
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Scores the pawn structure of a board: passed, isolated and doubled pawns. Scores are in
+ * centipawns from white's point of view, so positive numbers favor white.
+ * <p>
+ * Pawns move far less often than other pieces, so {@link #evaluate(ChessBoard)} keeps a
+ * small cache per thread keyed by the board's pawn-only hash and only recomputes the score
+ * when the pawns themselves have changed.
+ */
+public final class PawnStructure {
+    static final int DOUBLED_PENALTY = 10;
+    static final int ISOLATED_PENALTY = 15;
+    //Bonus for a passed pawn by how many rows it has advanced from its starting row
+    static final int[] PASSED_BONUS = {0, 5, 10, 20, 35, 60, 100, 0};
+
+    private static final int CACHE_BITS = 12;
+    private static final ThreadLocal<Cache> CACHE = ThreadLocal.withInitial(Cache::new);
+
+    private static final byte WHITE_PAWN = ChessPiece.toCode(
+            new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    private static final byte BLACK_PAWN = ChessPiece.toCode(
+            new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+
+    //Direct-mapped table; a slot holds the full key so a collision is just a miss
+    private static final class Cache {
+        final long[] keys = new long[1 << CACHE_BITS];
+        final int[] scores = new int[1 << CACHE_BITS];
+        final boolean[] filled = new boolean[1 << CACHE_BITS];
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * @return the pawn structure score, from this thread's cache when the same pawns have
+     * been scored before
+     */
+    public static int evaluate(ChessBoard board) {
+        long key = board.getPawnKey();
+        Cache cache = CACHE.get();
+        int slot = (int) (key ^ (key >>> 32)) & ((1 << CACHE_BITS) - 1);
+        if (cache.filled[slot] && cache.keys[slot] == key) {
+            return cache.scores[slot];
+        }
+        int score = compute(board);
+        cache.keys[slot] = key;
+        cache.scores[slot] = score;
+        cache.filled[slot] = true;
+        return score;
+    }
+
+    /**
+     * @return the pawn structure score, always computed from the board
+     */
+    public static int compute(ChessBoard board) {
+        //Pawns per file and the lowest and highest row holding a pawn of each color
+        int[] whiteCount = new int[8];
+        int[] blackCount = new int[8];
+        int[] whiteLowest = new int[8];
+        int[] blackHighest = new int[8];
+        Arrays.fill(whiteLowest, 9);
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8 + 1;
+            int col = square % 8;
+            byte code = board.getCode(square);
+            if (code == WHITE_PAWN) {
+                whiteCount[col]++;
+                whiteLowest[col] = Math.min(whiteLowest[col], row);
+            } else if (code == BLACK_PAWN) {
+                blackCount[col]++;
+                blackHighest[col] = Math.max(blackHighest[col], row);
+            }
+        }
+
+        int score = 0;
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8 + 1;
+            int col = square % 8;
+            byte code = board.getCode(square);
+            if (code == WHITE_PAWN) {
+                score += pawnScore(col, whiteCount, isPassed(col, row, whiteLowest, blackHighest, true), row - 2);
+            } else if (code == BLACK_PAWN) {
+                score -= pawnScore(col, blackCount, isPassed(col, row, whiteLowest, blackHighest, false), 7 - row);
+            }
+        }
+        for (int col = 0; col < 8; col++) {
+            score -= DOUBLED_PENALTY * Math.max(0, whiteCount[col] - 1);
+            score += DOUBLED_PENALTY * Math.max(0, blackCount[col] - 1);
+        }
+        return score;
+    }
+
+    private static int pawnScore(int col, int[] ownCount, boolean passed, int advanced) {
+        int score = 0;
+        boolean isolated = (col == 0 || ownCount[col - 1] == 0) && (col == 7 || ownCount[col + 1] == 0);
+        if (isolated) {
+            score -= ISOLATED_PENALTY;
+        }
+        if (passed) {
+            score += PASSED_BONUS[Math.max(0, Math.min(advanced, 7))];
+        }
+        return score;
+    }
+
+    //A pawn is passed when no enemy pawn ahead of it on its own or a neighbouring file can stop it
+    private static boolean isPassed(int col, int row, int[] whiteLowest, int[] blackHighest, boolean white) {
+        for (int file = Math.max(0, col - 1); file <= Math.min(7, col + 1); file++) {
+            if (white ? blackHighest[file] > row : whiteLowest[file] < row) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
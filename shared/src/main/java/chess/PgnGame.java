@@ -0,0 +1,28 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * A single game read from a PGN file
+ *
+ * @param tags   the tag pairs, for example "White" or "Event"
+ * @param moves  the moves that could be resolved, in order
+ * @param result the game termination marker ("1-0", "0-1", "1/2-1/2" or "*"), or null if missing
+ * @param error  why the moves stopped early, or null if every move was legal
+ */
+public record PgnGame(Map<String, String> tags, MoveList moves, String result, String error) {
+
+    /**
+     * @return the value of a tag, or null if the game does not have it
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return True if every move in the game text was read and legal
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,328 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads games from PGN (Portable Game Notation) files one at a time, so large archives
+ * never have to be held in memory as a whole
+ * <p>
+ * Games are only parsed as the stream pulls them. Memory-mapped files split at game
+ * boundaries, so {@code games(path).parallel()} parses different parts of the file on
+ * different cores.
+ */
+public final class PgnReader {
+    //Only used to estimate how many games a region of a file holds
+    private static final int AVERAGE_GAME_BYTES = 1024;
+    private static final Pattern TAG = Pattern.compile("\\[\\s*(\\w+)\\s+\"((?:[^\"\\\\]|\\\\.)*)\"\\s*]");
+
+    private PgnReader() {
+    }
+
+    /**
+     * Streams the games read from a channel. The caller still owns the channel and must
+     * close it once the stream is done.
+     *
+     * @param channel the channel to read PGN text from
+     * @return a sequential stream of the games in the channel
+     */
+    public static Stream<PgnGame> games(ReadableByteChannel channel) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel, decoder, -1));
+        return StreamSupport.stream(new ChannelSpliterator(reader), false);
+    }
+
+    /**
+     * Streams the games in a file by memory-mapping it. The returned stream splits well and
+     * can be made parallel.
+     *
+     * @param file the PGN file to read
+     * @return a stream of the games in the file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static Stream<PgnGame> games(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            //Too big for a single mapping, fall back to reading the channel in order
+            return games(channel).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        try (channel) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return StreamSupport.stream(new MappedSpliterator(buffer, 0, (int) size), false);
+        }
+    }
+
+    /**
+     * Parses the text of a single game, resolving each SAN move against the rules in {@link ChessGame}
+     *
+     * @param text tag pairs followed by the movetext of one game
+     * @return the parsed game
+     */
+    public static PgnGame parseGame(String text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+        for (String line : text.split("\r?\n")) {
+            String trimmed = line.strip();
+            if (trimmed.startsWith("%")) {
+                continue;
+            }
+            if (movetext.isEmpty() && trimmed.startsWith("[")) {
+                Matcher matcher = TAG.matcher(trimmed);
+                if (matcher.matches()) {
+                    tags.put(matcher.group(1), matcher.group(2).replace("\\\"", "\"").replace("\\\\", "\\"));
+                }
+            } else if (!trimmed.isEmpty()) {
+                movetext.append(line).append('\n');
+            }
+        }
+        return parseMoves(tags, movetext);
+    }
+
+    private static PgnGame parseMoves(Map<String, String> tags, CharSequence text) {
+        MoveList moves = new MoveList();
+        String result = null;
+        String error = null;
+        ChessGame game = new ChessGame();
+        if (tags.containsKey("FEN")) {
+            error = "Games starting from a FEN position are not supported";
+        }
+
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '{') {
+                i = skipPast(text, i, '}');
+            } else if (c == ';') {
+                i = skipPast(text, i, '\n');
+            } else if (c == '(') {
+                i = skipVariation(text, i);
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(text.charAt(i))) i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(text.charAt(i)) && "{}();".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                if (i == start) {
+                    //Stray closing bracket
+                    i++;
+                    continue;
+                }
+                String token = text.subSequence(start, i).toString();
+                if (isResult(token)) {
+                    result = token;
+                    continue;
+                }
+                //Drop move numbers such as "12." or "12..." which may be glued to the move
+                int number = 0;
+                while (number < token.length() && Character.isDigit(token.charAt(number))) number++;
+                int dots = number;
+                while (dots < token.length() && token.charAt(dots) == '.') dots++;
+                if (dots > number || dots == token.length()) {
+                    token = token.substring(dots);
+                }
+                if (token.isEmpty() || error != null) {
+                    continue;
+                }
+                try {
+                    ChessMove move = SanMove.resolve(game, token);
+                    game.makeMove(move);
+                    moves.add(move);
+                } catch (InvalidMoveException e) {
+                    error = "Ply " + (moves.size() + 1) + ": " + e.getMessage();
+                }
+            }
+        }
+        return new PgnGame(tags, moves, result, error);
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    private static int skipPast(CharSequence text, int i, char close) {
+        while (i < text.length() && text.charAt(i) != close) i++;
+        return i + 1;
+    }
+
+    //Skips a variation, including nested variations and comments inside it
+    private static int skipVariation(CharSequence text, int i) {
+        int depth = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                i = skipPast(text, i, '}');
+                continue;
+            }
+            if (c == '(') depth++;
+            if (c == ')' && --depth == 0) return i + 1;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Reads whole games line by line from a channel. Splitting is left to the batching
+     * done by {@link Spliterators.AbstractSpliterator}.
+     */
+    private static class ChannelSpliterator extends Spliterators.AbstractSpliterator<PgnGame> {
+        private final BufferedReader reader;
+        //First line of the next game, already read while finding the end of the last one
+        private String pending;
+
+        ChannelSpliterator(BufferedReader reader) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PgnGame> action) {
+            StringBuilder gameText = new StringBuilder();
+            boolean seenMoves = false;
+            if (pending != null) {
+                gameText.append(pending).append('\n');
+                pending = null;
+            }
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String trimmed = line.strip();
+                    if (trimmed.startsWith("[")) {
+                        if (seenMoves) {
+                            pending = line;
+                            break;
+                        }
+                    } else if (!trimmed.isEmpty() && !trimmed.startsWith("%")) {
+                        seenMoves = true;
+                    }
+                    gameText.append(line).append('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (gameText.toString().isBlank()) {
+                return false;
+            }
+            action.accept(parseGame(gameText.toString()));
+            return true;
+        }
+    }
+
+    /**
+     * Reads games from a region of a memory-mapped file. Only absolute reads are used on
+     * the shared buffer, so split halves can be read from different threads.
+     */
+    private static class MappedSpliterator implements Spliterator<PgnGame> {
+        private final ByteBuffer buffer;
+        private int position;
+        private final int end;
+
+        MappedSpliterator(ByteBuffer buffer, int position, int end) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PgnGame> action) {
+            if (position >= end) {
+                return false;
+            }
+            int gameEnd = gameEnd(position);
+            byte[] bytes = new byte[gameEnd - position];
+            buffer.get(position, bytes);
+            position = gameEnd;
+
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (text.isBlank()) {
+                return false;
+            }
+            action.accept(parseGame(text));
+            return true;
+        }
+
+        @Override
+        public Spliterator<PgnGame> trySplit() {
+            int middle = position + (end - position) / 2;
+            int lineStart = middle;
+            while (lineStart > 0 && lineStart < end && buffer.get(lineStart - 1) != '\n') lineStart++;
+            //Scanning from anywhere inside a game stops at the start of a following game
+            int split = gameEnd(lineStart);
+            if (split <= position || split >= end) {
+                return null;
+            }
+            MappedSpliterator prefix = new MappedSpliterator(buffer, position, split);
+            position = split;
+            return prefix;
+        }
+
+        /**
+         * Finds where the game containing the given line ends, which is the first tag line
+         * after some movetext has been seen
+         */
+        private int gameEnd(int lineStart) {
+            boolean seenMoves = false;
+            int i = lineStart;
+            while (i < end) {
+                int lineEnd = i;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') lineEnd++;
+                int first = i;
+                while (first < lineEnd && Character.isWhitespace(buffer.get(first))) first++;
+                if (first < lineEnd) {
+                    byte b = buffer.get(first);
+                    if (b == '[') {
+                        if (seenMoves) {
+                            return i;
+                        }
+                    } else if (b != '%') {
+                        seenMoves = true;
+                    }
+                }
+                i = lineEnd + 1;
+            }
+            return end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (end - position + AVERAGE_GAME_BYTES - 1) / AVERAGE_GAME_BYTES;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+    }
+}
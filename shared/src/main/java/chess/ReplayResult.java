@@ -0,0 +1,20 @@
+package chess;
+
+/**
+ * The outcome of replaying one recorded move sequence
+ *
+ * @param index      position of the sequence in the batch, starting at 0
+ * @param plies      number of moves that were applied
+ * @param illegalPly index of the first move that could not be made, or -1 if every move was legal
+ * @param error      why the replay stopped early, or null
+ * @param status     status of the side to move once the replay stopped
+ */
+public record ReplayResult(long index, int plies, int illegalPly, String error, GameStatus status) {
+
+    /**
+     * @return True if every move of the sequence was legal
+     */
+    public boolean isLegal() {
+        return illegalPly < 0 && error == null;
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for a batch replay. Safe to update from many worker threads at once.
+ */
+public class ReplaySummary {
+    private final LongAdder games = new LongAdder();
+    private final LongAdder illegal = new LongAdder();
+    private final LongAdder plies = new LongAdder();
+    private final Map<GameStatus, LongAdder> statuses = new EnumMap<>(GameStatus.class);
+
+    public ReplaySummary() {
+        for (GameStatus status : GameStatus.values()) {
+            statuses.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Adds one replayed game to the totals
+     *
+     * @param result the result of the replay
+     */
+    public void record(ReplayResult result) {
+        games.increment();
+        plies.add(result.plies());
+        if (!result.isLegal()) {
+            illegal.increment();
+        }
+        statuses.get(result.status()).increment();
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getIllegalGames() {
+        return illegal.sum();
+    }
+
+    public long getPlies() {
+        return plies.sum();
+    }
+
+    /**
+     * @return number of games that ended with the side to move in the given status
+     */
+    public long getStatusCount(GameStatus status) {
+        return statuses.get(status).sum();
+    }
+
+    /**
+     * Writes the totals as one "name: value" line each
+     *
+     * @param out where to write the summary
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append("games: ").append(String.valueOf(getGames())).append('\n');
+        out.append("plies: ").append(String.valueOf(getPlies())).append('\n');
+        out.append("illegal: ").append(String.valueOf(getIllegalGames())).append('\n');
+        for (GameStatus status : GameStatus.values()) {
+            out.append(status.name().toLowerCase()).append(": ")
+                    .append(String.valueOf(getStatusCount(status))).append('\n');
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the rules engine's hot paths. Each event times one call and
+ * records the position hash and how many moves were involved.
+ * <p>
+ * Callers follow the usual pattern: create the event, {@code begin()} it, do the work and
+ * only fill in fields inside {@code if (event.shouldCommit())}. When a recording does not
+ * enable the event, {@code shouldCommit()} is false, the fields are never computed and the
+ * JIT removes the unused event object.
+ */
+final class RulesEvents {
+
+    private RulesEvents() {
+    }
+
+    @Name("chess.MakeMove")
+    @Label("Make Move")
+    @Category({"Chess", "Rules"})
+    @Description("ChessGame.makeMove, including the legality check")
+    @StackTrace(false)
+    static final class MakeMove extends Event {
+        @Label("Position Key")
+        long positionKey;
+
+        @Label("Move")
+        String move;
+
+        @Label("Move Count")
+        @Description("Moves in the game's history before this one")
+        int moveCount;
+
+        @Label("Made")
+        boolean made;
+    }
+
+    @Name("chess.ValidMoves")
+    @Label("Valid Moves")
+    @Category({"Chess", "Rules"})
+    @Description("ChessGame.validMoves for one square")
+    @StackTrace(false)
+    static final class ValidMoves extends Event {
+        @Label("Position Key")
+        long positionKey;
+
+        @Label("Square")
+        @Description("Start square index, 0 for a1 up to 63 for h8")
+        int square;
+
+        @Label("Move Count")
+        int moveCount;
+    }
+
+    @Name("chess.Checkmate")
+    @Label("Checkmate Test")
+    @Category({"Chess", "Rules"})
+    @Description("ChessGame.isInCheckmate")
+    @StackTrace(false)
+    static final class Checkmate extends Event {
+        @Label("Position Key")
+        long positionKey;
+
+        @Label("Team")
+        String team;
+
+        @Label("Move Count")
+        @Description("Moves in the game's history")
+        int moveCount;
+
+        @Label("Checkmate")
+        boolean checkmate;
+    }
+
+    @Name("chess.PieceMoves")
+    @Label("Piece Moves")
+    @Category({"Chess", "Rules"})
+    @Description("ChessPiece.pieceMoves for one piece, before king safety is checked")
+    @StackTrace(false)
+    static final class PieceMoves extends Event {
+        @Label("Position Key")
+        @Description("Hash of the pieces on the board only")
+        long positionKey;
+
+        @Label("Piece")
+        String piece;
+
+        @Label("Move Count")
+        int moveCount;
+    }
+}
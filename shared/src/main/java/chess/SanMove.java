@@ -0,0 +1,136 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Resolves moves written in Standard Algebraic Notation (SAN), as used in PGN files,
+ * against the current position of a game
+ */
+public final class SanMove {
+
+    private SanMove() {
+    }
+
+    /**
+     * Finds the legal move for the side to move that a SAN token describes
+     *
+     * @param game the game whose current position the token refers to
+     * @param san  the token, for example "e4", "Nbd7", "exd8=Q+" or "O-O"
+     * @return the matching legal move
+     * @throws InvalidMoveException if the token is malformed, illegal or ambiguous
+     */
+    public static ChessMove resolve(ChessGame game, String san) throws InvalidMoveException {
+        String text = stripSuffix(san);
+        ChessGame.TeamColor team = game.getTeamTurn();
+        int homeRow = team == ChessGame.TeamColor.WHITE ? 1 : 8;
+
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return requireLegal(game, san, new ChessMove(new ChessPosition(homeRow, 5), new ChessPosition(homeRow, 7), null));
+        }
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return requireLegal(game, san, new ChessMove(new ChessPosition(homeRow, 5), new ChessPosition(homeRow, 3), null));
+        }
+        if (text.isEmpty()) {
+            throw new InvalidMoveException("Empty move");
+        }
+
+        ChessPiece.PieceType type = pieceType(text.charAt(0));
+        String body = type == null ? text : text.substring(1);
+        if (type == null) {
+            type = ChessPiece.PieceType.PAWN;
+        }
+
+        ChessPiece.PieceType promotion = null;
+        int equals = body.indexOf('=');
+        if (equals >= 0) {
+            promotion = body.length() > equals + 1 ? pieceType(body.charAt(equals + 1)) : null;
+            if (promotion == null) {
+                throw new InvalidMoveException("Bad promotion in " + san);
+            }
+            body = body.substring(0, equals);
+        } else if (type == ChessPiece.PieceType.PAWN && !body.isEmpty() && pieceType(body.charAt(body.length() - 1)) != null) {
+            promotion = pieceType(body.charAt(body.length() - 1));
+            body = body.substring(0, body.length() - 1);
+        }
+
+        body = body.replace("x", "").replace(":", "");
+        if (body.length() < 2) {
+            throw new InvalidMoveException("Cannot read move " + san);
+        }
+        ChessPosition end = square(body.charAt(body.length() - 2), body.charAt(body.length() - 1));
+        if (end == null) {
+            throw new InvalidMoveException("Cannot read destination of " + san);
+        }
+
+        //Anything left between the piece letter and the destination narrows down the start square
+        int fromCol = 0;
+        int fromRow = 0;
+        for (char c : body.substring(0, body.length() - 2).toCharArray()) {
+            if (c >= 'a' && c <= 'h') {
+                fromCol = c - 'a' + 1;
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '1' + 1;
+            } else {
+                throw new InvalidMoveException("Cannot read move " + san);
+            }
+        }
+
+        ChessMove found = null;
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            if (fromRow != 0 && row != fromRow) continue;
+            for (int col = 1; col <= 8; col++) {
+                if (fromCol != 0 && col != fromCol) continue;
+                ChessPosition start = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(start);
+                if (piece == null || piece.getTeamColor() != team || piece.getPieceType() != type) continue;
+
+                ChessMove candidate = new ChessMove(start, end, promotion);
+                if (game.validMoves(start).contains(candidate)) {
+                    if (found != null) {
+                        throw new InvalidMoveException("Ambiguous move " + san);
+                    }
+                    found = candidate;
+                }
+            }
+        }
+        if (found == null) {
+            throw new InvalidMoveException("Illegal move " + san);
+        }
+        return found;
+    }
+
+    private static ChessMove requireLegal(ChessGame game, String san, ChessMove move) throws InvalidMoveException {
+        Collection<ChessMove> moves = game.validMoves(move.getStartPosition());
+        if (moves == null || !moves.contains(move)) {
+            throw new InvalidMoveException("Illegal move " + san);
+        }
+        return move;
+    }
+
+    private static String stripSuffix(String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return san.substring(0, end);
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+
+    private static ChessPosition square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return null;
+        }
+        return new ChessPosition(rank - '1' + 1, file - 'a' + 1);
+    }
+}
@@ -0,0 +1,109 @@
+package chess;
+
+/**
+ * Batch evaluation one position at a time, used when the Vector API is not available
+ * and for the positions left over after the last full vector
+ */
+class ScalarBatchEvaluator implements BatchEvaluator {
+    static final long NOT_A_FILE = 0xFEFEFEFEFEFEFEFEL;
+    static final long NOT_AB_FILE = 0xFCFCFCFCFCFCFCFCL;
+    static final long NOT_H_FILE = 0x7F7F7F7F7F7F7F7FL;
+    static final long NOT_GH_FILE = 0x3F3F3F3F3F3F3F3FL;
+
+    //Shift and wrap mask for each sliding direction: N, S, E, W, NE, NW, SE, SW
+    static final int[] SHIFTS = {8, -8, 1, -1, 9, 7, -7, -9};
+    static final long[] MASKS = {-1L, -1L, NOT_A_FILE, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE};
+
+    @Override
+    public void material(BitboardBatch batch, int[] scores) {
+        for (int i = 0; i < batch.size(); i++) {
+            scores[i] = materialAt(batch, i);
+        }
+    }
+
+    @Override
+    public void attacks(BitboardBatch batch, ChessGame.TeamColor side, long[] out) {
+        for (int i = 0; i < batch.size(); i++) {
+            out[i] = attacksAt(batch, side, i);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    static int materialAt(BitboardBatch batch, int i) {
+        int score = 0;
+        for (int type = 0; type < 6; type++) {
+            score += PIECE_VALUES[type] * (Long.bitCount(batch.pieces(type)[i]) - Long.bitCount(batch.pieces(6 + type)[i]));
+        }
+        return score;
+    }
+
+    static long attacksAt(BitboardBatch batch, ChessGame.TeamColor side, int i) {
+        int base = side == ChessGame.TeamColor.BLACK ? 6 : 0;
+        long occupied = 0;
+        for (int p = 0; p < 12; p++) {
+            occupied |= batch.pieces(p)[i];
+        }
+        long empty = ~occupied;
+        long king = batch.pieces(base + ChessPiece.PieceType.KING.ordinal())[i];
+        long queens = batch.pieces(base + ChessPiece.PieceType.QUEEN.ordinal())[i];
+        long bishops = batch.pieces(base + ChessPiece.PieceType.BISHOP.ordinal())[i] | queens;
+        long rooks = batch.pieces(base + ChessPiece.PieceType.ROOK.ordinal())[i] | queens;
+        long knights = batch.pieces(base + ChessPiece.PieceType.KNIGHT.ordinal())[i];
+        long pawns = batch.pieces(base + ChessPiece.PieceType.PAWN.ordinal())[i];
+
+        long result = knightAttacks(knights) | kingAttacks(king) | pawnAttacks(pawns, side == ChessGame.TeamColor.WHITE);
+        for (int dir = 0; dir < 8; dir++) {
+            long sliders = dir < 4 ? rooks : bishops;
+            if (sliders != 0) {
+                result |= slideAttacks(sliders, empty, SHIFTS[dir], MASKS[dir]);
+            }
+        }
+        return result;
+    }
+
+    static long knightAttacks(long knights) {
+        long l1 = (knights >>> 1) & NOT_H_FILE;
+        long l2 = (knights >>> 2) & NOT_GH_FILE;
+        long r1 = (knights << 1) & NOT_A_FILE;
+        long r2 = (knights << 2) & NOT_AB_FILE;
+        long h1 = l1 | r1;
+        long h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+
+    static long kingAttacks(long king) {
+        long sides = ((king << 1) & NOT_A_FILE) | ((king >>> 1) & NOT_H_FILE);
+        long row = king | sides;
+        return sides | (row << 8) | (row >>> 8);
+    }
+
+    static long pawnAttacks(long pawns, boolean white) {
+        if (white) {
+            return ((pawns << 7) & NOT_H_FILE) | ((pawns << 9) & NOT_A_FILE);
+        }
+        return ((pawns >>> 9) & NOT_H_FILE) | ((pawns >>> 7) & NOT_A_FILE);
+    }
+
+    /**
+     * Kogge-Stone fill: floods the sliders along one direction through empty squares, then
+     * steps once more so the first blocker counts as attacked
+     */
+    static long slideAttacks(long sliders, long empty, int shift, long mask) {
+        long propagate = empty & mask;
+        long generate = sliders;
+        generate |= propagate & shift(generate, shift);
+        propagate &= shift(propagate, shift);
+        generate |= propagate & shift(generate, 2 * shift);
+        propagate &= shift(propagate, 2 * shift);
+        generate |= propagate & shift(generate, 4 * shift);
+        return shift(generate, shift) & mask;
+    }
+
+    private static long shift(long bits, int shift) {
+        return shift > 0 ? bits << shift : bits >>> -shift;
+    }
+}
@@ -0,0 +1,126 @@
+package chess;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch evaluation with the incubating Vector API, working on as many positions per
+ * instruction as the CPU's widest vectors hold (4 with AVX2, 8 with AVX-512)
+ * <p>
+ * Only created through {@link BatchEvaluator#create()}, which checks that the
+ * jdk.incubator.vector module is present first.
+ */
+final class VectorBatchEvaluator implements BatchEvaluator {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void material(BitboardBatch batch, int[] scores) {
+        int size = batch.size();
+        int upper = SPECIES.loopBound(size);
+        long[] lanes = new long[SPECIES.length()];
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            LongVector score = LongVector.zero(SPECIES);
+            for (int type = 0; type < 6; type++) {
+                if (PIECE_VALUES[type] == 0) {
+                    continue;
+                }
+                LongVector white = LongVector.fromArray(SPECIES, batch.pieces(type), i).lanewise(VectorOperators.BIT_COUNT);
+                LongVector black = LongVector.fromArray(SPECIES, batch.pieces(6 + type), i).lanewise(VectorOperators.BIT_COUNT);
+                score = score.add(white.sub(black).mul(PIECE_VALUES[type]));
+            }
+            score.intoArray(lanes, 0);
+            for (int lane = 0; lane < lanes.length; lane++) {
+                scores[i + lane] = (int) lanes[lane];
+            }
+        }
+        for (; i < size; i++) {
+            scores[i] = ScalarBatchEvaluator.materialAt(batch, i);
+        }
+    }
+
+    @Override
+    public void attacks(BitboardBatch batch, ChessGame.TeamColor side, long[] out) {
+        int base = side == ChessGame.TeamColor.BLACK ? 6 : 0;
+        boolean white = side == ChessGame.TeamColor.WHITE;
+        int size = batch.size();
+        int upper = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            LongVector occupied = LongVector.zero(SPECIES);
+            for (int p = 0; p < 12; p++) {
+                occupied = occupied.or(LongVector.fromArray(SPECIES, batch.pieces(p), i));
+            }
+            LongVector empty = occupied.not();
+            LongVector king = load(batch, base, ChessPiece.PieceType.KING, i);
+            LongVector queens = load(batch, base, ChessPiece.PieceType.QUEEN, i);
+            LongVector bishops = load(batch, base, ChessPiece.PieceType.BISHOP, i).or(queens);
+            LongVector rooks = load(batch, base, ChessPiece.PieceType.ROOK, i).or(queens);
+            LongVector knights = load(batch, base, ChessPiece.PieceType.KNIGHT, i);
+            LongVector pawns = load(batch, base, ChessPiece.PieceType.PAWN, i);
+
+            LongVector result = knightAttacks(knights).or(kingAttacks(king)).or(pawnAttacks(pawns, white));
+            for (int dir = 0; dir < 8; dir++) {
+                LongVector sliders = dir < 4 ? rooks : bishops;
+                result = result.or(slideAttacks(sliders, empty, ScalarBatchEvaluator.SHIFTS[dir],
+                        ScalarBatchEvaluator.MASKS[dir]));
+            }
+            result.intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = ScalarBatchEvaluator.attacksAt(batch, side, i);
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    private static LongVector load(BitboardBatch batch, int base, ChessPiece.PieceType type, int i) {
+        return LongVector.fromArray(SPECIES, batch.pieces(base + type.ordinal()), i);
+    }
+
+    private static LongVector knightAttacks(LongVector knights) {
+        LongVector l1 = shift(knights, -1).and(ScalarBatchEvaluator.NOT_H_FILE);
+        LongVector l2 = shift(knights, -2).and(ScalarBatchEvaluator.NOT_GH_FILE);
+        LongVector r1 = shift(knights, 1).and(ScalarBatchEvaluator.NOT_A_FILE);
+        LongVector r2 = shift(knights, 2).and(ScalarBatchEvaluator.NOT_AB_FILE);
+        LongVector h1 = l1.or(r1);
+        LongVector h2 = l2.or(r2);
+        return shift(h1, 16).or(shift(h1, -16)).or(shift(h2, 8)).or(shift(h2, -8));
+    }
+
+    private static LongVector kingAttacks(LongVector king) {
+        LongVector sides = shift(king, 1).and(ScalarBatchEvaluator.NOT_A_FILE)
+                .or(shift(king, -1).and(ScalarBatchEvaluator.NOT_H_FILE));
+        LongVector row = king.or(sides);
+        return sides.or(shift(row, 8)).or(shift(row, -8));
+    }
+
+    private static LongVector pawnAttacks(LongVector pawns, boolean white) {
+        if (white) {
+            return shift(pawns, 7).and(ScalarBatchEvaluator.NOT_H_FILE)
+                    .or(shift(pawns, 9).and(ScalarBatchEvaluator.NOT_A_FILE));
+        }
+        return shift(pawns, -9).and(ScalarBatchEvaluator.NOT_H_FILE)
+                .or(shift(pawns, -7).and(ScalarBatchEvaluator.NOT_A_FILE));
+    }
+
+    //Same Kogge-Stone fill as ScalarBatchEvaluator.slideAttacks, one position per lane
+    private static LongVector slideAttacks(LongVector sliders, LongVector empty, int shift, long mask) {
+        LongVector propagate = empty.and(mask);
+        LongVector generate = sliders;
+        generate = generate.or(propagate.and(shift(generate, shift)));
+        propagate = propagate.and(shift(propagate, shift));
+        generate = generate.or(propagate.and(shift(generate, 2 * shift)));
+        propagate = propagate.and(shift(propagate, 2 * shift));
+        generate = generate.or(propagate.and(shift(generate, 4 * shift)));
+        return shift(generate, shift).and(mask);
+    }
+
+    private static LongVector shift(LongVector bits, int shift) {
+        return shift > 0 ? bits.lanewise(VectorOperators.LSHL, shift) : bits.lanewise(VectorOperators.LSHR, -shift);
+    }
+}
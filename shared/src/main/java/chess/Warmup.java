@@ -0,0 +1,61 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Exercises the rules engine so its classes are loaded, linked and compiled before real
+ * traffic arrives. Mains call this at startup when asked to, and a CDS training run calls it
+ * so every rules class ends up in the shared archive.
+ * <p>
+ * The games are played from a fixed seed so every run loads the same classes.
+ */
+public final class Warmup {
+
+    private Warmup() {
+    }
+
+    /**
+     * Plays pseudo-random games, checking every piece's valid moves and the game status
+     * after each move
+     *
+     * @param games how many games to play
+     * @return the number of moves made, so the work cannot be optimized away
+     */
+    public static int run(int games) {
+        SplittableRandom random = new SplittableRandom(240);
+        int made = 0;
+        for (int i = 0; i < games; i++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 200; ply++) {
+                ChessGame.TeamColor team = game.getTeamTurn();
+                ArrayList<ChessMove> moves = new ArrayList<>();
+                for (int square = 0; square < 64; square++) {
+                    ChessPosition position = PackedMove.position(square);
+                    ChessPiece piece = game.getBoard().getPiece(position);
+                    if (piece != null && piece.getTeamColor() == team) {
+                        moves.addAll(game.validMoves(position));
+                    }
+                }
+                game.allLegalMoves(team);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                try {
+                    game.makeMove(moves.get(random.nextInt(moves.size())));
+                } catch (InvalidMoveException e) {
+                    throw new IllegalStateException("Warmup generated an illegal move", e);
+                }
+                made++;
+                PawnStructure.evaluate(game.getBoard());
+                GameStatus status = GameStatus.of(game);
+                if (status == GameStatus.CHECKMATE || status == GameStatus.STALEMATE) {
+                    break;
+                }
+            }
+            MoveList.fromBytes(game.getMoveHistory().toBytes());
+            game.snapshot().toGame();
+        }
+        return made;
+    }
+}
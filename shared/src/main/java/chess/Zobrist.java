@@ -0,0 +1,43 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of positions. A position's key is the XOR of the keys of
+ * its pieces, side to move, castling rights and en passant file, so it can be updated one
+ * square at a time as pieces move.
+ * <p>
+ * The keys come from a fixed seed so a position hashes the same in every JVM.
+ */
+final class Zobrist {
+    //Indexed by compact piece code, then square index
+    static final long[][] PIECES = new long[16][64];
+    //Same keys as PIECES for the two pawn codes and zero for every other code
+    static final long[][] PAWNS = new long[16][64];
+    static final long BLACK_TO_MOVE;
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x240C4E55L);
+        for (int code = 1; code < 16; code++) {
+            for (int square = 0; square < 64; square++) {
+                PIECES[code][square] = random.nextLong();
+            }
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int pawn = ChessPiece.toCode(new ChessPiece(color, ChessPiece.PieceType.PAWN));
+            PAWNS[pawn] = PIECES[pawn];
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 1; i < 16; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < 8; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+}
@@ -0,0 +1,19 @@
+package websocket.messages;
+
+import chess.ChessGame;
+
+/**
+ * Sends the current state of a game so the client can redraw the board
+ */
+public class LoadGameMessage extends ServerMessage {
+    private final ChessGame game;
+
+    public LoadGameMessage(ChessGame game) {
+        super(ServerMessageType.LOAD_GAME);
+        this.game = game;
+    }
+
+    public ChessGame getGame() {
+        return game;
+    }
+}
@@ -0,0 +1,17 @@
+package websocket.messages;
+
+/**
+ * Tells the client about something another player did
+ */
+public class NotificationMessage extends ServerMessage {
+    private final String message;
+
+    public NotificationMessage(String message) {
+        super(ServerMessageType.NOTIFICATION);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
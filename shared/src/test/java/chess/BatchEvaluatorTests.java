@@ -0,0 +1,84 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BatchEvaluatorTests {
+
+    private static BitboardBatch randomPositions(int count, List<ChessBoard> boards) throws InvalidMoveException {
+        var batch = new BitboardBatch(count);
+        var random = new Random(34);
+        var game = new ChessGame();
+        while (batch.size() < count) {
+            List<ChessMove> moves = new ArrayList<>();
+            game.allLegalMoves(game.getTeamTurn()).forEach(moves::add);
+            if (moves.isEmpty() || game.getMoveHistory().size() > 150) {
+                game = new ChessGame();
+                continue;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+            batch.add(game.getBoard());
+            boards.add(new ChessBoard(game.getBoard()));
+        }
+        return batch;
+    }
+
+    //Attacked squares worked out one square at a time with the rules in ChessGame
+    private static long expectedAttacks(ChessBoard board, ChessGame.TeamColor side) {
+        long attacked = 0;
+        for (int square = 0; square < 64; square++) {
+            if (ChessGame.isSquareAttacked(board, PackedMove.position(square), side)) {
+                attacked |= 1L << square;
+            }
+        }
+        return attacked;
+    }
+
+    @Test
+    @DisplayName("Scalar Attacks Match Rules")
+    public void scalarAttacks() throws InvalidMoveException {
+        List<ChessBoard> boards = new ArrayList<>();
+        BitboardBatch batch = randomPositions(100, boards);
+        for (ChessGame.TeamColor side : ChessGame.TeamColor.values()) {
+            long[] out = new long[batch.size()];
+            new ScalarBatchEvaluator().attacks(batch, side, out);
+            for (int i = 0; i < batch.size(); i++) {
+                Assertions.assertEquals(expectedAttacks(boards.get(i), side), out[i]);
+            }
+        }
+
+        var start = new BitboardBatch(1);
+        start.add(new ChessGame().getBoard());
+        int[] scores = new int[1];
+        new ScalarBatchEvaluator().material(start, scores);
+        Assertions.assertEquals(0, scores[0]);
+    }
+
+    @Test
+    @DisplayName("Best Evaluator Matches Scalar Evaluator")
+    public void vectorMatchesScalar() throws InvalidMoveException {
+        BitboardBatch batch = randomPositions(203, new ArrayList<>());
+        BatchEvaluator scalar = new ScalarBatchEvaluator();
+        BatchEvaluator best = BatchEvaluator.create();
+        Assertions.assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), best.isVectorized());
+
+        int[] expectedScores = new int[batch.size()];
+        int[] actualScores = new int[batch.size()];
+        scalar.material(batch, expectedScores);
+        best.material(batch, actualScores);
+        Assertions.assertArrayEquals(expectedScores, actualScores);
+
+        for (ChessGame.TeamColor side : ChessGame.TeamColor.values()) {
+            long[] expected = new long[batch.size()];
+            long[] actual = new long[batch.size()];
+            scalar.attacks(batch, side, expected);
+            best.attacks(batch, side, actual);
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshot Unchanged by Later Moves")
+    public void snapshotIsIsolated() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        BoardSnapshot snapshot = game.snapshot();
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+
+        Assertions.assertEquals(1, snapshot.getPly());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, snapshot.getTeamTurn());
+        Assertions.assertNotNull(snapshot.getPiece(new ChessPosition(7, 5)));
+        Assertions.assertNull(snapshot.getPiece(new ChessPosition(5, 5)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                snapshot.getPiece(new ChessPosition(4, 5)));
+    }
+
+    @Test
+    @DisplayName("Restore Game From Snapshot")
+    public void restoreGame() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 6), new ChessPosition(5, 6), null));
+
+        ChessGame copy = game.snapshot().toGame();
+        Assertions.assertEquals(game, copy);
+        //En passant is still available in the restored game
+        var enPassant = new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 6), null);
+        Assertions.assertTrue(copy.validMoves(new ChessPosition(5, 5)).contains(enPassant));
+    }
+}
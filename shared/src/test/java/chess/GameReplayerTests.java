@@ -0,0 +1,56 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class GameReplayerTests {
+
+    private static MoveList moves(String... coordinates) {
+        var list = new MoveList();
+        for (String move : coordinates) {
+            int from = (move.charAt(1) - '1') * 8 + (move.charAt(0) - 'a');
+            int to = (move.charAt(3) - '1') * 8 + (move.charAt(2) - 'a');
+            list.add(PackedMove.encode(from, to, null));
+        }
+        return list;
+    }
+
+    @Test
+    @DisplayName("Replay a Batch on Several Threads")
+    public void replayBatch() throws IOException {
+        List<MoveList> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            switch (i % 3) {
+                case 0 -> batch.add(moves("e2e4", "e7e5", "d1h5", "b8c6", "f1c4", "g8f6", "h5f7"));
+                case 1 -> batch.add(moves("f2f3", "e7e5", "g2g4", "d8h4"));
+                default -> batch.add(moves("e2e4", "e7e5", "e1e3"));
+            }
+        }
+
+        var results = new ConcurrentLinkedQueue<ReplayResult>();
+        ReplaySummary summary;
+        try (var replayer = new GameReplayer(4, 8)) {
+            summary = replayer.replayAll(batch, results::add);
+        }
+
+        Assertions.assertEquals(300, summary.getGames());
+        Assertions.assertEquals(300, results.size());
+        Assertions.assertEquals(100, summary.getIllegalGames());
+        Assertions.assertEquals(200, summary.getStatusCount(GameStatus.CHECKMATE));
+        for (ReplayResult result : results) {
+            if (result.index() % 3 == 2) {
+                Assertions.assertEquals(2, result.illegalPly());
+            }
+        }
+
+        var text = new StringBuilder();
+        summary.writeTo(text);
+        Assertions.assertTrue(text.toString().contains("checkmate: 200"));
+    }
+}
@@ -0,0 +1,92 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameTableTests {
+
+    @Test
+    @DisplayName("Batch Moves Match Individual Games")
+    public void batchMatchesGames() throws InvalidMoveException {
+        var table = new GameTable(1);
+        int first = table.create();
+        int second = table.create();
+        var reference = new ChessGame();
+
+        var e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        var illegal = new ChessMove(new ChessPosition(2, 5), new ChessPosition(5, 5), null);
+        boolean[] results = new boolean[2];
+        int made = table.applyMoves(new int[]{first, second},
+                new short[]{PackedMove.encode(e4), PackedMove.encode(illegal)}, results);
+        reference.makeMove(e4);
+
+        Assertions.assertEquals(1, made);
+        Assertions.assertTrue(results[0]);
+        Assertions.assertFalse(results[1]);
+        Assertions.assertEquals(reference, table.copyGame(first));
+        Assertions.assertEquals(reference.getPositionKey(), table.getPositionKey(first));
+        Assertions.assertEquals(1, table.getPly(first));
+        Assertions.assertEquals(new ChessGame(), table.copyGame(second));
+        Assertions.assertEquals(0, table.getPly(second));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                table.getPiece(first, new ChessPosition(4, 5)));
+        Assertions.assertNull(table.getPiece(first, new ChessPosition(2, 5)));
+        Assertions.assertSame(table.getPiece(first, new ChessPosition(2, 4)),
+                table.getPiece(second, new ChessPosition(2, 4)));
+    }
+
+    @Test
+    @DisplayName("Batch Statuses")
+    public void batchStatuses() throws InvalidMoveException {
+        var table = new GameTable(4);
+        int fresh = table.create();
+        int mated = table.create();
+        var game = new ChessGame();
+        //Fool's mate
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+        table.store(mated, game);
+
+        GameStatus[] statuses = new GameStatus[2];
+        table.statuses(new int[]{fresh, mated}, statuses);
+        Assertions.assertEquals(GameStatus.ONGOING, statuses[0]);
+        Assertions.assertEquals(GameStatus.CHECKMATE, statuses[1]);
+    }
+
+    @Test
+    @DisplayName("Halfmove Clock Resets On Pawn Moves And Captures")
+    public void halfmoveClock() {
+        var table = new GameTable(1);
+        int id = table.create();
+        short[] moves = {
+                PackedMove.encode(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null)),
+                PackedMove.encode(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null)),
+                PackedMove.encode(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)),
+                PackedMove.encode(new ChessMove(new ChessPosition(6, 6), new ChessPosition(4, 5), null))
+        };
+        int[] expected = {1, 2, 0, 0};
+        boolean[] result = new boolean[1];
+        for (int i = 0; i < moves.length; i++) {
+            table.applyMoves(new int[]{id}, new short[]{moves[i]}, result);
+            Assertions.assertTrue(result[0]);
+            Assertions.assertEquals(expected[i], table.getHalfmoveClock(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Released Slots Are Reused")
+    public void releaseReusesSlot() {
+        var table = new GameTable(2);
+        table.create();
+        int released = table.create();
+        table.release(released);
+
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.copyGame(released));
+        Assertions.assertEquals(released, table.create());
+        Assertions.assertEquals(new ChessGame(), table.copyGame(released));
+    }
+}
@@ -0,0 +1,198 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class LegalMoveGeneratorTests {
+
+    private static Set<ChessMove> perSquareMoves(ChessGame game, ChessGame.TeamColor team) {
+        Set<ChessMove> moves = new HashSet<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == team) {
+                    moves.addAll(game.validMoves(position));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static Set<ChessMove> batchMoves(ChessGame game, ChessGame.TeamColor team) {
+        Set<ChessMove> moves = new HashSet<>();
+        for (ChessMove move : game.allLegalMoves(team)) {
+            Assertions.assertTrue(moves.add(move), "Duplicate move " + move);
+        }
+        return moves;
+    }
+
+    @Test
+    @DisplayName("Batch Moves Match Per-Square Moves in Random Games")
+    public void randomGames() throws InvalidMoveException {
+        var random = new Random(240);
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                var team = game.getTeamTurn();
+                Assertions.assertEquals(perSquareMoves(game, team), batchMoves(game, team));
+                Assertions.assertEquals(perSquareMoves(game, ChessGame.opponent(team)),
+                        batchMoves(game, ChessGame.opponent(team)));
+
+                List<ChessMove> moves = new ArrayList<>(batchMoves(game, team));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                moves.sort((a, b) -> Short.compare(PackedMove.encode(a), PackedMove.encode(b)));
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Single Move Checks Match Move Generation")
+    public void isLegalMatchesValidMoves() throws InvalidMoveException {
+        var random = new Random(36);
+        ChessPiece.PieceType[] promotions = {null, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT,
+                ChessPiece.PieceType.KING};
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                for (int from = 0; from < 64; from++) {
+                    ChessPosition start = PackedMove.position(from);
+                    Collection<ChessMove> valid = game.validMoves(start);
+                    for (int to = 0; to < 64; to++) {
+                        for (ChessPiece.PieceType promotion : promotions) {
+                            var move = new ChessMove(start, PackedMove.position(to), promotion);
+                            Assertions.assertEquals(valid != null && valid.contains(move), game.isLegal(move),
+                                    move.toString());
+                        }
+                    }
+                }
+
+                List<ChessMove> moves = new ArrayList<>(batchMoves(game, game.getTeamTurn()));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                moves.sort((a, b) -> Short.compare(PackedMove.encode(a), PackedMove.encode(b)));
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    //Every legal move that leaves the opponent in check, found by playing each one out
+    private static Set<ChessMove> playedChecks(ChessGame game) throws InvalidMoveException {
+        Set<ChessMove> checks = new HashSet<>();
+        for (ChessMove move : game.allLegalMoves(game.getTeamTurn())) {
+            ChessGame next = game.snapshot().toGame();
+            next.makeMove(move);
+            if (next.isInCheck(next.getTeamTurn())) {
+                checks.add(move);
+            }
+        }
+        return checks;
+    }
+
+    private static Set<ChessMove> generatedChecks(ChessGame game) {
+        Set<ChessMove> checks = new HashSet<>();
+        for (ChessMove move : game.checkingMoves(game.getTeamTurn())) {
+            checks.add(move);
+        }
+        return checks;
+    }
+
+    @Test
+    @DisplayName("Checking Moves Match Playing Every Move")
+    public void checkingMoves() throws InvalidMoveException {
+        var random = new Random(37);
+        for (int gameNumber = 0; gameNumber < 30; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                Assertions.assertEquals(playedChecks(game), generatedChecks(game));
+                List<ChessMove> moves = new ArrayList<>(batchMoves(game, game.getTeamTurn()));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                moves.sort((a, b) -> Short.compare(PackedMove.encode(a), PackedMove.encode(b)));
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+
+        //A discovered check from the knight, a promotion that checks along the rank and
+        //castling, where the rook lands on the king's file
+        var game = new ChessGame();
+        game.setBoard(loadBoard("""
+                |k| | | | |r| | |
+                | | | | | | |P| |
+                | | | | | | | | |
+                |N| | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """));
+        Set<ChessMove> checks = generatedChecks(game);
+        Assertions.assertEquals(playedChecks(game), checks);
+        Assertions.assertTrue(checks.contains(new ChessMove(new ChessPosition(5, 1), new ChessPosition(3, 2), null)));
+        Assertions.assertTrue(checks.contains(new ChessMove(new ChessPosition(7, 7), new ChessPosition(8, 6),
+                ChessPiece.PieceType.QUEEN)));
+
+        game.setBoard(loadBoard("""
+                | | | | | |k| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | |R|
+                """));
+        checks = generatedChecks(game);
+        Assertions.assertEquals(playedChecks(game), checks);
+        Assertions.assertTrue(checks.contains(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null)));
+    }
+
+    @Test
+    @DisplayName("Pins and Double Check")
+    public void pinsAndDoubleCheck() {
+        var game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |r| | |k|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |N| | | |
+                | | | | | | | | |
+                | | | |B| | | | |
+                |b| | | |K| | | |
+                """));
+        Assertions.assertEquals(perSquareMoves(game, ChessGame.TeamColor.WHITE),
+                batchMoves(game, ChessGame.TeamColor.WHITE));
+
+        game.setBoard(loadBoard("""
+                | | | | |r| | |k|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |n| | | | |
+                | | | |B| | | | |
+                | | | | |K| | |Q|
+                """));
+        Set<ChessMove> moves = batchMoves(game, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(perSquareMoves(game, ChessGame.TeamColor.WHITE), moves);
+        for (ChessMove move : moves) {
+            Assertions.assertEquals(new ChessPosition(1, 5), move.getStartPosition(), "Only the king may move");
+        }
+    }
+}
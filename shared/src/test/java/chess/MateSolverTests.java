@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class MateSolverTests {
+
+    private static ChessGame puzzle(String board) {
+        var game = new ChessGame();
+        game.setBoard(loadBoard(board));
+        return game;
+    }
+
+    private static final String BACK_RANK = """
+            | | | | | | | |k|
+            | | | | | | |p|p|
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |R| | | | | |K| |
+            """;
+
+    private static final String DOUBLED_ROOKS = """
+            |k| | | | | | | |
+            |p|p| | | | | | |
+            | | |r| | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | |R| | | | |
+            | | | |R| | |K| |
+            """;
+
+    @Test
+    @DisplayName("Mate in One")
+    public void mateInOne() throws InvalidMoveException {
+        ChessGame game = puzzle(BACK_RANK);
+        ChessMove move = MateSolver.solve(game, 3);
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), move);
+        game.makeMove(move);
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Mate in Two Through Every Defence")
+    public void mateInTwo() throws InvalidMoveException {
+        ChessGame game = puzzle(DOUBLED_ROOKS);
+        Assertions.assertNull(MateSolver.solve(game, 1));
+        ChessMove first = MateSolver.solve(game, 2);
+        Assertions.assertNotNull(first);
+
+        game.makeMove(first);
+        for (ChessMove defence : game.allLegalMoves(ChessGame.TeamColor.BLACK)) {
+            ChessGame reply = game.snapshot().toGame();
+            reply.makeMove(defence);
+            ChessMove mate = MateSolver.solve(reply, 1);
+            Assertions.assertNotNull(mate, "No mate after " + defence);
+            reply.makeMove(mate);
+            Assertions.assertTrue(reply.isInCheckmate(ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Test
+    @DisplayName("Batch Keeps Puzzle Order")
+    public void solveBatch() {
+        List<ChessMove> results = MateSolver.solveAll(List.of(new ChessGame(), puzzle(BACK_RANK),
+                puzzle(DOUBLED_ROOKS)), 2);
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertNull(results.get(0));
+        Assertions.assertEquals(new ChessPosition(8, 1), results.get(1).getEndPosition());
+        Assertions.assertNotNull(results.get(2));
+    }
+}
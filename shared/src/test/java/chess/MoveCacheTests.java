@@ -0,0 +1,67 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+public class MoveCacheTests {
+
+    @Test
+    @DisplayName("Cached Moves Match Generated Moves")
+    public void cachedMovesMatch() throws InvalidMoveException {
+        var cache = new MoveCache(64);
+        var cached = new ChessGame();
+        cached.setMoveCache(cache);
+        var plain = new ChessGame();
+
+        var knight = new ChessPosition(1, 7);
+        Assertions.assertEquals(new HashSet<>(plain.validMoves(knight)), new HashSet<>(cached.validMoves(knight)));
+        Assertions.assertEquals(new HashSet<>(plain.validMoves(knight)), new HashSet<>(cached.validMoves(knight)));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+
+        //A different position must not reuse the entry
+        var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        cached.makeMove(move);
+        plain.makeMove(move);
+        var king = new ChessPosition(1, 5);
+        cached.setTeamTurn(ChessGame.TeamColor.WHITE);
+        plain.setTeamTurn(ChessGame.TeamColor.WHITE);
+        long misses = cache.getMisses();
+        Assertions.assertEquals(new HashSet<>(plain.validMoves(king)), new HashSet<>(cached.validMoves(king)));
+        Assertions.assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Position Key Follows the Position")
+    public void positionKey() throws InvalidMoveException {
+        var first = new ChessGame();
+        var second = new ChessGame();
+        Assertions.assertEquals(first.getPositionKey(), second.getPositionKey());
+
+        //Reach the same position through different move orders
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        Assertions.assertNotEquals(first.getPositionKey(), second.getPositionKey());
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertEquals(first.getPositionKey(), second.getPositionKey());
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Entry Evicted")
+    public void eviction() {
+        var cache = new MoveCache(2);
+        cache.put(1, 0, new short[0]);
+        cache.put(2, 0, new short[0]);
+        Assertions.assertNotNull(cache.get(1, 0));
+        cache.put(3, 0, new short[0]);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.get(2, 0));
+        Assertions.assertNotNull(cache.get(1, 0));
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class MoveSpliteratorTests {
+    private static final String BOARD = """
+            | |n| | |k| | | |
+            | | |P| | | | | |
+            | | | | |p| | | |
+            | | |Q| | | |b| |
+            | | | | | |N| | |
+            | |p| | | | | | |
+            |P| | | | |P| | |
+            |R| | | |K| | |R|
+            """;
+
+    @Test
+    @DisplayName("Lazy Moves Match Piece Moves")
+    public void sameMovesAsPieceMoves() {
+        ChessBoard board = loadBoard(BOARD);
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece == null) {
+                    continue;
+                }
+                List<ChessMove> lazy = piece.pieceMoveStream(board, position).toList();
+                Assertions.assertEquals(new HashSet<>(piece.pieceMoves(board, position)), new HashSet<>(lazy),
+                        "Wrong moves for " + piece.getPieceType() + " at " + row + "," + col);
+                Assertions.assertEquals(new HashSet<>(lazy).size(), lazy.size(), "Duplicate move");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Captures Before Quiets Before Promotions")
+    public void stageOrder() {
+        ChessBoard board = loadBoard(BOARD);
+        var pawn = new ChessPosition(7, 3);
+        List<ChessMove> moves = board.getPiece(pawn).pieceMoveStream(board, pawn).toList();
+        //Only promotions are possible, capturing the knight or pushing
+        Assertions.assertEquals(8, moves.size());
+
+        var queen = new ChessPosition(5, 3);
+        List<ChessMove> queenMoves = new ArrayList<>();
+        board.getPiece(queen).lazyPieceMoves(board, queen).forEachRemaining(queenMoves::add);
+        var firstQuiet = queenMoves.stream().filter(move -> board.getPiece(move.getEndPosition()) == null)
+                .findFirst().map(queenMoves::indexOf).orElseThrow();
+        for (int i = firstQuiet; i < queenMoves.size(); i++) {
+            Assertions.assertNull(board.getPiece(queenMoves.get(i).getEndPosition()), "Capture after a quiet move");
+        }
+        Assertions.assertTrue(firstQuiet > 0);
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PackedMoveTests {
+
+    @Test
+    @DisplayName("Encode and Decode Every Square Pair")
+    public void roundTripSquares() {
+        for (int fromRow = 1; fromRow <= 8; fromRow++) {
+            for (int fromCol = 1; fromCol <= 8; fromCol++) {
+                for (int toRow = 1; toRow <= 8; toRow++) {
+                    for (int toCol = 1; toCol <= 8; toCol++) {
+                        var move = new ChessMove(new ChessPosition(fromRow, fromCol),
+                                new ChessPosition(toRow, toCol), null);
+                        Assertions.assertEquals(move, PackedMove.decode(PackedMove.encode(move)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Encode and Decode Promotions")
+    public void roundTripPromotions() {
+        var types = new ChessPiece.PieceType[]{ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+        for (var type : types) {
+            var move = new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 6), type);
+            short packed = PackedMove.encode(move);
+            Assertions.assertEquals(move, PackedMove.decode(packed));
+            Assertions.assertEquals(move, PackedMove.decode(PackedMove.withFlag(packed)));
+            Assertions.assertTrue(PackedMove.hasFlag(PackedMove.withFlag(packed)));
+        }
+        Assertions.assertEquals("e7f8q", PackedMove.toString(PackedMove.encode(
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 6), ChessPiece.PieceType.QUEEN))));
+    }
+
+    @Test
+    @DisplayName("Move List Grows and Serializes")
+    public void moveListBytes() {
+        var list = new MoveList(1);
+        for (int i = 0; i < 100; i++) {
+            list.add(new ChessMove(new ChessPosition(2, i % 8 + 1), new ChessPosition(4, i % 8 + 1), null));
+        }
+        Assertions.assertEquals(100, list.size());
+        byte[] bytes = list.toBytes();
+        Assertions.assertEquals(200, bytes.length);
+
+        var copy = MoveList.fromBytes(bytes);
+        Assertions.assertEquals(list, copy);
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null), copy.getMove(3));
+    }
+
+    @Test
+    @DisplayName("Unused Promotion Codes Are Rejected")
+    public void invalidPromotion() {
+        for (int code = 5; code <= 7; code++) {
+            short packed = (short) (PackedMove.encode(52, 60, null) | (code << 12));
+            var error = Assertions.assertThrows(IllegalArgumentException.class, () -> PackedMove.decode(packed));
+            Assertions.assertTrue(error.getMessage().contains("promotion code " + code));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> PackedMove.promotion(packed));
+        }
+        var bytes = new byte[]{(byte) 0x5F, (byte) 0x34};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MoveList.fromBytes(bytes).getMove(0));
+    }
+}
@@ -0,0 +1,66 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class PawnStructureTests {
+
+    private static void play(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null));
+    }
+
+    @Test
+    @DisplayName("Pawn Key Ignores Other Pieces")
+    public void pawnKeyTracksPawnsOnly() throws InvalidMoveException {
+        var game = new ChessGame();
+        long start = game.getBoard().getPawnKey();
+
+        play(game, 1, 7, 3, 6);
+        play(game, 8, 2, 6, 3);
+        Assertions.assertEquals(start, game.getBoard().getPawnKey());
+
+        play(game, 2, 5, 4, 5);
+        Assertions.assertNotEquals(start, game.getBoard().getPawnKey());
+        Assertions.assertEquals(new ChessBoard(game.getBoard().toCodes()).getPawnKey(), game.getBoard().getPawnKey());
+    }
+
+    @Test
+    @DisplayName("Passed, Isolated and Doubled Pawns")
+    public void structureTerms() {
+        ChessBoard board = loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | |P| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |p|
+                | | | | | | |P|P|
+                | | | | |K| | | |
+                """);
+        //b6 is passed and isolated; g2, h2 and h3 block each other and only h3 is isolated
+        int expected = PawnStructure.PASSED_BONUS[4] - PawnStructure.ISOLATED_PENALTY
+                + PawnStructure.ISOLATED_PENALTY;
+        Assertions.assertEquals(expected, PawnStructure.compute(board));
+
+        board.addPiece(new ChessPosition(4, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        //b4 is passed and isolated too, and the b file is now doubled
+        expected += PawnStructure.PASSED_BONUS[2] - PawnStructure.ISOLATED_PENALTY - PawnStructure.DOUBLED_PENALTY;
+        Assertions.assertEquals(expected, PawnStructure.compute(board));
+    }
+
+    @Test
+    @DisplayName("Cached Scores Match Computed Scores")
+    public void cachedMatchesComputed() throws InvalidMoveException {
+        var game = new ChessGame();
+        Assertions.assertEquals(0, PawnStructure.evaluate(game.getBoard()));
+        play(game, 2, 4, 4, 4);
+        play(game, 7, 5, 5, 5);
+        play(game, 4, 4, 5, 5);
+        Assertions.assertEquals(PawnStructure.compute(game.getBoard()), PawnStructure.evaluate(game.getBoard()));
+        Assertions.assertEquals(PawnStructure.compute(game.getBoard()), PawnStructure.evaluate(game.getBoard()));
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class PgnReaderTests {
+    private static final String RUY_LOPEZ = """
+            [Event "Casual Game"]
+            [White "Alice"]
+            [Black "Bob"]
+            [Result "1/2-1/2"]
+
+            1. e4 e5 2. Nf3 Nc6 {the main line} 3. Bb5 a6 (3... Nf6 4. O-O) 4. Ba4 Nf6
+            5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O 1/2-1/2
+
+            """;
+
+    private static final String SCHOLARS_MATE = """
+            [Event "Casual Game"]
+            [Result "1-0"]
+
+            1.e4 e5 2.Qh5 Nc6 3.Bc4 Nf6?? 4.Qxf7# 1-0
+
+            """;
+
+    private static final String ILLEGAL = """
+            [Event "Broken"]
+
+            1. e4 e5 2. Ke3 Nc6 *
+            """;
+
+    @Test
+    @DisplayName("Parse Games From a Channel")
+    public void channelGames() {
+        var bytes = (RUY_LOPEZ + SCHOLARS_MATE + ILLEGAL).getBytes(StandardCharsets.UTF_8);
+        var channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+        List<PgnGame> games = PgnReader.games(channel).toList();
+
+        Assertions.assertEquals(3, games.size());
+        Assertions.assertEquals("Alice", games.get(0).tag("White"));
+        Assertions.assertEquals(16, games.get(0).moves().size());
+        Assertions.assertEquals("1/2-1/2", games.get(0).result());
+        Assertions.assertTrue(games.get(0).isValid());
+
+        Assertions.assertEquals(7, games.get(1).moves().size());
+        Assertions.assertEquals("h5f7", PackedMove.toString(games.get(1).moves().get(6)));
+
+        Assertions.assertFalse(games.get(2).isValid());
+        Assertions.assertEquals(2, games.get(2).moves().size());
+    }
+
+    @Test
+    @DisplayName("Parallel Parse of a Mapped File")
+    public void mappedFileGames(@TempDir Path dir) throws IOException {
+        var text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append(i % 2 == 0 ? RUY_LOPEZ : SCHOLARS_MATE);
+        }
+        Path file = dir.resolve("games.pgn");
+        Files.writeString(file, text);
+
+        try (var games = PgnReader.games(file)) {
+            Assertions.assertEquals(200, games.parallel().filter(PgnGame::isValid).count());
+        }
+        try (var games = PgnReader.games(file)) {
+            Assertions.assertEquals(100 * 16 + 100 * 7, games.mapToInt(game -> game.moves().size()).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Resolve Ambiguous SAN")
+    public void disambiguation() throws InvalidMoveException {
+        var game = new ChessGame();
+        for (String san : new String[]{"Nf3", "d5", "Nc3", "e5", "Nd4", "Nf6"}) {
+            game.makeMove(SanMove.resolve(game, san));
+        }
+        Assertions.assertThrows(InvalidMoveException.class, () -> SanMove.resolve(game, "Nb5"));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(3, 3), new ChessPosition(5, 2), null),
+                SanMove.resolve(game, "Ncb5"));
+    }
+}
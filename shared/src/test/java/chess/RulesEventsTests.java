@@ -0,0 +1,52 @@
+package chess;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class RulesEventsTests {
+
+    @Test
+    @DisplayName("Make Move Events Recorded When Enabled")
+    public void makeMoveEvents() throws IOException, InvalidMoveException {
+        var game = new ChessGame();
+        long startKey = game.getPositionKey();
+        Path file = Files.createTempFile("rules", ".jfr");
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable("chess.MakeMove").withoutThreshold();
+            recording.enable("chess.Checkmate").withoutThreshold();
+            recording.start();
+            game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+            Assertions.assertThrows(InvalidMoveException.class,
+                    () -> game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null)));
+            game.isInCheckmate(ChessGame.TeamColor.BLACK);
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        List<RecordedEvent> moves = events.stream()
+                .filter(event -> event.getEventType().getName().equals("chess.MakeMove")).toList();
+        Assertions.assertEquals(2, moves.size());
+        Assertions.assertEquals(startKey, moves.get(0).getLong("positionKey"));
+        Assertions.assertEquals("e2e4", moves.get(0).getString("move"));
+        Assertions.assertTrue(moves.get(0).getBoolean("made"));
+        Assertions.assertFalse(moves.get(1).getBoolean("made"));
+        Assertions.assertEquals(1, moves.get(1).getInt("moveCount"));
+
+        Assertions.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("chess.Checkmate")
+                && !event.getBoolean("checkmate") && event.getString("team").equals("BLACK")));
+        Assertions.assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("chess.ValidMoves")));
+    }
+}